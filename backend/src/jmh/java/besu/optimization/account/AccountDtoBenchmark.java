@@ -0,0 +1,52 @@
+package besu.optimization.account;
+
+import besu.optimization.account.AccountService.AccountDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity -> DTO mapping on every account read and create
+ *
+ * - from: AccountDto.from(Account), GET /api/accounts/{userId}
+ * - pendingWithStatus: AccountDto.pending(...).withStatus(...), the cached
+ *   DTO updated on a status transition (AccountCache / AccountEventStream)
+ *
+ * Expected gc.alloc.rate.norm: one AccountDto (plus one per withStatus).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AccountDtoBenchmark {
+
+    private Account account;
+
+    @Setup
+    public void setup() {
+        account = Account.builder()
+                .id(123L)
+                .userId("user-000123")
+                .userName("User 123")
+                .walletAddress("0x9a8f2c5e3b1d4c6e7f8a9b0c1d2e3f4a5b6c7d8e")
+                .txHash("0x4e3a3754410177e6937ef1f84bba68ea139e8d1a2258c5f85db9f1cd715a1bdd")
+                .status(1)
+                .build();
+    }
+
+    @Benchmark
+    public AccountDto from() {
+        return AccountDto.from(account);
+    }
+
+    @Benchmark
+    public AccountDto pendingWithStatus() {
+        return AccountDto.pending(account.getId(), account.getUserId(), account.getUserName())
+                .withStatus(1, account.getWalletAddress(), account.getTxHash());
+    }
+}
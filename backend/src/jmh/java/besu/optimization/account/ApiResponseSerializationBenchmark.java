@@ -0,0 +1,57 @@
+package besu.optimization.account;
+
+import besu.optimization.account.AccountController.ApiResponse;
+import besu.optimization.account.AccountService.AccountDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller response serialization
+ *
+ * The 201 body of POST /api/accounts and the 200 body of GET, written with
+ * an ObjectMapper built like Spring Boot's (Jackson2ObjectMapperBuilder):
+ * - mapper: objectMapper.writeValueAsBytes, type resolved per call
+ * - typedWriter: ObjectWriter for ApiResponse<AccountDto> resolved once,
+ *   as MappingJackson2HttpMessageConverter caches serializers per type
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ApiResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter typedWriter;
+    private ApiResponse<AccountDto> created;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        typedWriter = objectMapper.writerFor(TypeFactory.defaultInstance()
+                .constructParametricType(ApiResponse.class, AccountDto.class));
+        created = ApiResponse.success(
+                AccountDto.pending(123L, "user-000123", "User 123"),
+                "Account created. Blockchain registration in progress.");
+    }
+
+    @Benchmark
+    public byte[] mapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(created);
+    }
+
+    @Benchmark
+    public byte[] typedWriter() throws JsonProcessingException {
+        return typedWriter.writeValueAsBytes(created);
+    }
+}
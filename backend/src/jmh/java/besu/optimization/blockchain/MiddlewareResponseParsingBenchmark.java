@@ -0,0 +1,74 @@
+package besu.optimization.blockchain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Middleware response parsing (BlockchainService.handleSuccessResponse)
+ *
+ * Compares what the message converters do per registration:
+ * - stringThenTree: StringHttpMessageConverter decodes the body to a String,
+ *   then objectMapper.readTree builds the full JsonNode tree
+ * - typedRecord: MappingJackson2HttpMessageConverter binds RegisterResponse
+ *   straight from the body stream, skipping fields it does not map
+ *
+ * Run with the gc profiler (configured in build.gradle) and compare
+ * gc.alloc.rate.norm, the bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MiddlewareResponseParsingBenchmark {
+
+    // Shape of the middleware's 201 body (middleware/src/routes/accounts.ts)
+    private static final String BODY = """
+            {"success":true,"message":"Account registered successfully","data":{\
+            "accountId":"5b0c7c1e-8f7e-4a59-9d0e-4a4f1f6d2c11","userId":"user-000123",\
+            "userName":"User 123","walletAddress":"0x9a8f2c5e3b1d4c6e7f8a9b0c1d2e3f4a5b6c7d8e",\
+            "privateKey":"********","role":0,"status":0,"initialFunding":{"amount":"1.0 ETH",\
+            "txHash":"0x4e3a3754410177e6937ef1f84bba68ea139e8d1a2258c5f85db9f1cd715a1bdd",\
+            "success":true}}}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] body;
+    private ObjectReader responseReader;
+
+    @Setup
+    public void setup() {
+        body = BODY.getBytes(StandardCharsets.UTF_8);
+        responseReader = objectMapper.readerFor(BlockchainService.RegisterResponse.class);
+    }
+
+    @Benchmark
+    public void stringThenTree(Blackhole bh) throws IOException {
+        String text = new String(body, StandardCharsets.UTF_8);
+        JsonNode root = objectMapper.readTree(text);
+        JsonNode data = root.get("data");
+        bh.consume(root.get("success").asBoolean());
+        bh.consume(data.get("walletAddress").asText());
+        bh.consume(data.get("initialFunding").get("txHash").asText());
+    }
+
+    @Benchmark
+    public void typedRecord(Blackhole bh) throws IOException {
+        BlockchainService.RegisterResponse response = responseReader.readValue(new ByteArrayInputStream(body));
+        bh.consume(response.success());
+        bh.consume(response.data().walletAddress());
+        bh.consume(response.data().initialFunding().txHash());
+    }
+}
@@ -0,0 +1,72 @@
+package besu.optimization.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AsyncConfig under blocking registrations
+ *
+ * One operation submits a burst of tasks that each block for blockMs (a
+ * shortened 4-10s finality wait) and waits for all of them to finish.
+ * The 64-thread pool drains the burst in ceil(tasks / 64) rounds; the
+ * virtual mode runs it in about one round, up to max-concurrency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AsyncConfigBlockingBenchmark {
+
+    @Param({"pool", "virtual"})
+    public String mode;
+
+    @Param({"1000"})
+    public int tasks;
+
+    @Param({"100"})
+    public long blockMs;
+
+    private AsyncConfig asyncConfig;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        asyncConfig = new AsyncConfig(new SimpleMeterRegistry());
+        Field modeField = AsyncConfig.class.getDeclaredField("mode");
+        modeField.setAccessible(true);
+        modeField.set(asyncConfig, mode);
+        asyncConfig.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        asyncConfig.shutdown();
+    }
+
+    @Benchmark
+    public void blockingBurst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            asyncConfig.runAsync(() -> {
+                try {
+                    Thread.sleep(blockMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+}
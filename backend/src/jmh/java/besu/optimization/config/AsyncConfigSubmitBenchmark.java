@@ -0,0 +1,60 @@
+package besu.optimization.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AsyncConfig hand-off under contention
+ *
+ * 8 request threads submit no-op tasks at once, as after-commit hooks do
+ * under load: the cost measured is the queue / semaphore hand-off, plus
+ * the caller running the task itself once the executor is saturated
+ * (caller-runs policy). Run for both executor modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class AsyncConfigSubmitBenchmark {
+
+    @Param({"pool", "virtual"})
+    public String mode;
+
+    private AsyncConfig asyncConfig;
+    private final LongAdder executed = new LongAdder();
+    private Runnable task;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        asyncConfig = new AsyncConfig(new SimpleMeterRegistry());
+        Field modeField = AsyncConfig.class.getDeclaredField("mode");
+        modeField.setAccessible(true);
+        modeField.set(asyncConfig, mode);
+        asyncConfig.init();
+        task = executed::increment;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        asyncConfig.shutdown();
+    }
+
+    @Benchmark
+    public void runAsync() {
+        asyncConfig.runAsync(task);
+    }
+}
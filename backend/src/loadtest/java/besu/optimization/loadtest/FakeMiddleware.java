@@ -0,0 +1,192 @@
+package besu.optimization.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fake Middleware
+ *
+ * Stands in for the Node.js middleware (Layer 2) and the Besu network
+ * behind it, so backend throughput can be measured on one machine:
+ * - POST /api/accounts/register answers like middleware/src/routes/accounts.ts
+ *   (201, random wallet address and txHash) after a simulated finality wait
+ * - Latency: uniform or lognormal between latency-min-ms and latency-max-ms
+ *   (default 4-10s, the paper's finality range)
+ * - error-rate of responses are 500, throttle-rate are 429
+ * - max-concurrent > 0 answers 503 beyond that many requests in flight,
+ *   like a saturated PM2 cluster
+ *
+ * One virtual thread per request, so the wait costs no platform thread.
+ *
+ * ./gradlew fakeMiddleware -Pargs="--port=3000 --latency=lognormal --error-rate=0.01"
+ */
+public final class FakeMiddleware {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HexFormat hex = HexFormat.of();
+
+    private final String latency;
+    private final long latencyMinMs;
+    private final long latencyMaxMs;
+    private final double errorRate;
+    private final double throttleRate;
+    private final Semaphore concurrency;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder registered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    FakeMiddleware(Args args) {
+        latency = args.get("latency", "uniform");
+        latencyMinMs = args.getLong("latency-min-ms", 4000);
+        latencyMaxMs = args.getLong("latency-max-ms", 10000);
+        errorRate = args.getDouble("error-rate", 0.0);
+        throttleRate = args.getDouble("throttle-rate", 0.0);
+        int maxConcurrent = args.getInt("max-concurrent", 0);
+        concurrency = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+    }
+
+    public static void main(String[] argv) throws IOException {
+        Args args = new Args(argv);
+        int port = args.getInt("port", 3000);
+        FakeMiddleware middleware = new FakeMiddleware(args);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 4096);
+        server.createContext("/api/accounts/register", middleware::register);
+        server.createContext("/health", exchange -> middleware.respond(exchange, 200, Map.of("status", "ok")));
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+
+        System.out.printf("Fake middleware on :%d, latency=%s %d-%dms, errorRate=%.3f, throttleRate=%.3f%n",
+                port, middleware.latency, middleware.latencyMinMs, middleware.latencyMaxMs,
+                middleware.errorRate, middleware.throttleRate);
+
+        Thread.ofPlatform().daemon(true).start(middleware::reportLoop);
+    }
+
+    private void register(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, Map.of("success", false, "error", "Method not allowed"));
+            return;
+        }
+        if (concurrency != null && !concurrency.tryAcquire()) {
+            rejected.increment();
+            respond(exchange, 503, Map.of("success", false, "error", "Service unavailable"));
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        try {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            String userId = request.path("userId").asText();
+            if (userId.isEmpty()) {
+                respond(exchange, 400, Map.of("success", false, "error", "userId is required"));
+                return;
+            }
+
+            Thread.sleep(latencyMs());
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < errorRate) {
+                failed.increment();
+                respond(exchange, 500, Map.of("success", false, "error", "Simulated failure"));
+                return;
+            }
+            if (roll < errorRate + throttleRate) {
+                failed.increment();
+                respond(exchange, 429, Map.of("success", false, "error", "Too many requests"));
+                return;
+            }
+
+            registered.increment();
+            respond(exchange, 201, registration(userId, request.path("userName").asText()));
+        } catch (InterruptedException e) {
+            exchange.close();
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            if (concurrency != null) {
+                concurrency.release();
+            }
+        }
+    }
+
+    long latencyMs() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if ("lognormal".equalsIgnoreCase(latency)) {
+            // Median at the geometric mean, min/max at about -/+2 sigma; clamped
+            double mu = (Math.log(latencyMinMs) + Math.log(latencyMaxMs)) / 2;
+            double sigma = (Math.log(latencyMaxMs) - Math.log(latencyMinMs)) / 4;
+            long value = Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+            return Math.max(latencyMinMs, Math.min(latencyMaxMs, value));
+        }
+        return random.nextLong(latencyMinMs, latencyMaxMs + 1);
+    }
+
+    private Map<String, Object> registration(String userId, String userName) {
+        byte[] wallet = new byte[20];
+        byte[] txHash = new byte[32];
+        ThreadLocalRandom.current().nextBytes(wallet);
+        ThreadLocalRandom.current().nextBytes(txHash);
+
+        Map<String, Object> funding = new LinkedHashMap<>();
+        funding.put("amount", "1.0 ETH");
+        funding.put("txHash", "0x" + hex.formatHex(txHash));
+        funding.put("success", true);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("accountId", UUID.randomUUID().toString());
+        data.put("userId", userId);
+        data.put("userName", userName);
+        data.put("walletAddress", "0x" + hex.formatHex(wallet));
+        data.put("privateKey", "********");
+        data.put("role", 0);
+        data.put("status", 0);
+        data.put("initialFunding", funding);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("message", "Account registered successfully");
+        response.put("data", data);
+        return response;
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private void reportLoop() {
+        long lastRegistered = 0;
+        while (true) {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                return;
+            }
+            long total = registered.sum();
+            System.out.printf("[fake-middleware] inFlight=%d, registered=%d (%.1f/s), failed=%d, rejected=%d%n",
+                    inFlight.get(), total, (total - lastRegistered) / 5.0, failed.sum(), rejected.sum());
+            lastRegistered = total;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package besu.optimization.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-Model Load Generator
+ *
+ * Sends POST /api/accounts at a constant arrival rate, whether or not
+ * earlier requests have completed (JMeter's Arrivals Thread Group, not a
+ * fixed pool of looping users):
+ * - Request i is due at start + i / rate; latency is measured from that
+ *   due time, so a stalled server or a late sender shows up in the tail
+ *   (no coordinated omission)
+ * - Latencies go into an HdrHistogram Recorder (1us-5min, 3 digits)
+ * - warmup-s of traffic is sent but not recorded
+ * - Beyond max-in-flight outstanding requests, due requests are counted
+ *   as dropped instead of queued in the client
+ *
+ * Prints a line every 5s and a percentile summary at the end.
+ *
+ * ./gradlew loadTest -Pargs="--target=http://localhost:8080 --rate=700 --duration-s=60"
+ */
+public final class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final URI target;
+    private final int rate;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final int maxInFlight;
+    private final String userPrefix;
+
+    private final HttpClient httpClient;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean recording;
+
+    LoadGenerator(Args args) {
+        target = URI.create(args.get("target", "http://localhost:8080") + "/api/accounts");
+        rate = args.getInt("rate", 700);
+        durationNanos = TimeUnit.SECONDS.toNanos(args.getLong("duration-s", 60));
+        warmupNanos = TimeUnit.SECONDS.toNanos(args.getLong("warmup-s", 10));
+        maxInFlight = args.getInt("max-in-flight", 50_000);
+        userPrefix = args.get("user-prefix", "lt-" + Long.toString(System.currentTimeMillis(), 36) + "-");
+
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(3))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] argv) throws InterruptedException {
+        new LoadGenerator(new Args(argv)).run();
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("Load: %d req/s to %s for %ds (+%ds warmup), users %s*%n",
+                rate, target, TimeUnit.NANOSECONDS.toSeconds(durationNanos),
+                TimeUnit.NANOSECONDS.toSeconds(warmupNanos), userPrefix);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long nextReport = measureFrom + TimeUnit.SECONDS.toNanos(5);
+        long sent = 0;
+
+        for (long i = 0; ; i++) {
+            long due = start + i * intervalNanos;
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            if (!recording && due >= measureFrom) {
+                recording = true;
+                recorder.reset();
+            }
+            if (recording && System.nanoTime() >= nextReport) {
+                report();
+                nextReport += TimeUnit.SECONDS.toNanos(5);
+            }
+
+            if (inFlight.get() >= maxInFlight) {
+                if (recording) {
+                    dropped.increment();
+                }
+                continue;
+            }
+            send(i, due);
+            sent++;
+        }
+
+        // Let outstanding requests finish (their latency still counts)
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(100);
+        }
+        report();
+        summary(sent);
+    }
+
+    private void send(long i, long due) {
+        String body = "{\"userId\":\"" + userPrefix + i + "\",\"userName\":\"Load Test " + i + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        boolean measured = recording;
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    inFlight.decrementAndGet();
+                    if (!measured) {
+                        return;
+                    }
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due);
+                    recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                    String outcome = error != null
+                            ? error.getClass().getSimpleName()
+                            : String.valueOf(response.statusCode());
+                    outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+                });
+    }
+
+    private void report() {
+        Histogram interval = recorder.getIntervalHistogram();
+        total.add(interval);
+        if (interval.getTotalCount() == 0) {
+            return;
+        }
+        double seconds = (interval.getEndTimeStamp() - interval.getStartTimeStamp()) / 1000.0;
+        System.out.printf("[load] %.0f resp/s, p50=%.1fms, p99=%.1fms, max=%.1fms, inFlight=%d, dropped=%d%n",
+                interval.getTotalCount() / Math.max(seconds, 0.001),
+                interval.getValueAtPercentile(50) / 1000.0,
+                interval.getValueAtPercentile(99) / 1000.0,
+                interval.getMaxValue() / 1000.0,
+                inFlight.get(), dropped.sum());
+    }
+
+    private void summary(long sent) {
+        long durationS = TimeUnit.NANOSECONDS.toSeconds(durationNanos);
+        Map<String, Long> byOutcome = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> byOutcome.put(outcome, count.sum()));
+        long created = byOutcome.getOrDefault("201", 0L);
+
+        System.out.println();
+        System.out.printf("Sent %d (incl. warmup), dropped %d, outcomes %s%n", sent, dropped.sum(), byOutcome);
+        System.out.printf("Throughput: %.1f created/s (target %d/s)%n", (double) created / durationS, rate);
+        System.out.printf("Latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                total.getValueAtPercentile(50) / 1000.0,
+                total.getValueAtPercentile(90) / 1000.0,
+                total.getValueAtPercentile(99) / 1000.0,
+                total.getValueAtPercentile(99.9) / 1000.0,
+                total.getMaxValue() / 1000.0);
+        System.out.println();
+        total.outputPercentileDistribution(System.out, 1000.0);
+    }
+}
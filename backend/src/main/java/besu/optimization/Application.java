@@ -2,6 +2,7 @@ package besu.optimization;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Besu Service Optimization Demo Application
@@ -15,8 +16,10 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * 2. Transaction Isolation Pattern
  * 3. Async Thread Pool with backpressure management
  * 4. HTTP Connection Pooling (500 connections)
+ * 5. Transactional outbox for durable blockchain registration
  */
 @SpringBootApplication
+@EnableScheduling
 public class Application {
 
     public static void main(String[] args) {
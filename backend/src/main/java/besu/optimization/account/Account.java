@@ -16,8 +16,15 @@ import java.time.LocalDateTime;
 @Builder
 public class Account {
 
+    /**
+     * Pooled sequence allocation (pooled-lo, 50 ids per nextval)
+     * IDENTITY forces Hibernate to execute each insert immediately to learn
+     * the id, which disables JDBC insert batching. With a pooled sequence the
+     * ids are known up front and saveAll() is sent as batched inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_id_seq")
+    @SequenceGenerator(name = "accounts_id_seq", sequenceName = "accounts_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", unique = true, nullable = false)
@@ -0,0 +1,115 @@
+package besu.optimization.account;
+
+import besu.optimization.account.AccountService.AccountDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Account Read Cache
+ *
+ * Bounded read-through cache of AccountDto by userId for GET /api/accounts/{userId}.
+ *
+ * - ACTIVE / FAILED rows are final, so they are kept for ttl-seconds
+ * - PENDING rows are kept for pending-ttl-ms only: clients poll them
+ *   during the 4-10s finality window, and another backend node may
+ *   complete the registration
+ * - Entries are updated in place when TX 2 on this node commits
+ *
+ * Hit/miss/eviction counts are exported as cache.* meters (cache=accounts).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${accounts.cache.max-size:100000}")
+    private long maxSize = 100_000;
+
+    @Value("${accounts.cache.ttl-seconds:600}")
+    private long ttlSeconds = 600;
+
+    @Value("${accounts.cache.pending-ttl-ms:1000}")
+    private long pendingTtlMs = 1000;
+
+    private Cache<String, AccountDto> cache;
+
+    @PostConstruct
+    void init() {
+        long finalTtlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long pendingTtlNanos = Duration.ofMillis(pendingTtlMs).toNanos();
+
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, AccountDto>() {
+                    @Override
+                    public long expireAfterCreate(String userId, AccountDto account, long currentTime) {
+                        return isPending(account) ? pendingTtlNanos : finalTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String userId, AccountDto account, long currentTime,
+                                                  long currentDuration) {
+                        return isPending(account) ? pendingTtlNanos : finalTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String userId, AccountDto account, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accounts");
+        log.info("AccountCache initialized: maxSize={}, ttl={}s, pendingTtl={}ms",
+                maxSize, ttlSeconds, pendingTtlMs);
+    }
+
+    /**
+     * Read-through lookup. The loader runs at most once per key concurrently;
+     * a null result (account not found) is not cached.
+     */
+    public AccountDto get(String userId, Function<String, AccountDto> loader) {
+        return cache.get(userId, loader);
+    }
+
+    /**
+     * Bulk read-through lookup. The loader gets all missing userIds in one
+     * call; userIds it does not return (not found) are left out and not cached.
+     */
+    public Map<String, AccountDto> getAll(Collection<String> userIds,
+                                          Function<Set<? extends String>, Map<String, AccountDto>> loader) {
+        return cache.getAll(userIds, loader);
+    }
+
+    /**
+     * Apply a committed status change to the cached entry, if any
+     */
+    @TransactionalEventListener
+    public void onStatusChanged(AccountStatusChangedEvent event) {
+        cache.asMap().computeIfPresent(event.userId(),
+                (userId, account) -> account.withStatus(event.status(), event.walletAddress(), event.txHash()));
+    }
+
+    private static boolean isPending(AccountDto account) {
+        return account.status() == null || account.status() == 0;
+    }
+}
@@ -2,13 +2,25 @@ package besu.optimization.account;
 
 import besu.optimization.account.AccountService.AccountDto;
 import besu.optimization.account.AccountService.CreateAccountRequest;
+import besu.optimization.account.AccountService.LookupRequest;
+import besu.optimization.blockchain.RegistrationMetrics;
+import besu.optimization.outbox.AdmissionControl;
+import besu.optimization.outbox.OverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -17,22 +29,114 @@ import java.util.Map;
 public class AccountController {
 
     private final AccountService accountService;
+    private final BulkAccountImporter bulkAccountImporter;
+    private final AccountEventStream accountEventStream;
+    private final AdmissionControl admissionControl;
+    private final RegistrationMetrics registrationMetrics;
+    private final IdempotencyStore idempotencyStore;
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
 
     /**
      * Create new account
      * Triggers async blockchain registration with Transaction Isolation Pattern
+     * Returns 429 + Retry-After while the registration backlog is full
+     *
+     * With an Idempotency-Key header a retry gets the original 201 back
+     * (Idempotent-Replayed: true) instead of a 400 for the duplicate userId;
+     * see IdempotencyStore.
      */
     @PostMapping
     public ResponseEntity<ApiResponse<AccountDto>> createAccount(
-            @RequestBody CreateAccountRequest request) {
+            @RequestBody CreateAccountRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
 
         log.info("[POST /api/accounts] userId={}", request.userId());
 
-        AccountDto account = accountService.createAccount(request);
+        if (idempotencyKey == null) {
+            return created(create(request, null), false);
+        }
 
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(ApiResponse.success(account, "Account created. Blockchain registration in progress."));
+        // Replays are answered before admission control and without a DB round trip
+        Optional<AccountDto> replay = idempotencyStore.claim(idempotencyKey, request);
+        if (replay.isPresent()) {
+            return created(replay.get(), true);
+        }
+
+        AccountDto account;
+        try {
+            account = create(request, idempotencyStore.persistentKey(idempotencyKey));
+        } catch (IllegalArgumentException e) {
+            // Duplicate userId: the first request may have been served by another node
+            Optional<String> persisted = Optional.empty();
+            try {
+                persisted = idempotencyStore.findPersisted(idempotencyKey, request);
+            } finally {
+                if (persisted.isEmpty()) {
+                    idempotencyStore.release(idempotencyKey);
+                }
+            }
+            if (persisted.isEmpty()) {
+                throw e;
+            }
+            account = accountService.getAccount(persisted.get());
+            idempotencyStore.complete(idempotencyKey, request, account);
+            return created(account, true);
+        } catch (RuntimeException e) {
+            idempotencyStore.release(idempotencyKey);
+            throw e;
+        }
+        idempotencyStore.complete(idempotencyKey, request, account);
+        return created(account, false);
+    }
+
+    private AccountDto create(CreateAccountRequest request, String idempotencyKey) {
+        admissionControl.admit();
+
+        // TX 1 including commit (the @Transactional boundary is accountService)
+        long start = System.nanoTime();
+        AccountDto account;
+        try {
+            account = accountService.createAccount(request, idempotencyKey);
+        } catch (IllegalArgumentException e) {
+            registrationMetrics.recordTx1(System.nanoTime() - start, "rejected");
+            throw e;
+        } catch (RuntimeException e) {
+            registrationMetrics.recordTx1(System.nanoTime() - start, "error");
+            throw e;
+        }
+        registrationMetrics.recordTx1(System.nanoTime() - start, "created");
+        return account;
+    }
+
+    private static ResponseEntity<ApiResponse<AccountDto>> created(AccountDto account, boolean replayed) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (replayed) {
+            response.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return response.body(ApiResponse.success(account, "Account created. Blockchain registration in progress."));
+    }
+
+    /**
+     * Bulk create accounts from an NDJSON stream
+     *
+     * One {"userId", "userName"} object per line. The body is consumed and the
+     * per-row results are written back (one NDJSON line per input line, in
+     * order) chunk by chunk, so neither side is buffered in full.
+     * Returns 429 up front while shedding; chunks shed mid-stream are
+     * reported as OVERLOADED rows.
+     */
+    @PostMapping(value = "/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createAccountsBulk(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("[POST /api/accounts/bulk] contentLength={}", request.getContentLengthLong());
+
+        admissionControl.checkAdmission();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bulkAccountImporter.importAccounts(request.getInputStream(), response.getOutputStream());
     }
 
     /**
@@ -44,6 +148,39 @@ public class AccountController {
         return ResponseEntity.ok(ApiResponse.success(account, "Account retrieved"));
     }
 
+    /**
+     * Get many accounts in one request
+     * e.g. POST /api/accounts/lookup {"userIds": ["user1", "user2"]}
+     * Returns found accounts keyed by userId; unknown userIds are left out.
+     * At most accounts.lookup.max-user-ids per request (400 beyond that).
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<ApiResponse<Map<String, AccountDto>>> lookupAccounts(
+            @RequestBody LookupRequest request) {
+        Map<String, AccountDto> accounts = accountService.getAccounts(request.userIds());
+        return ResponseEntity.ok(ApiResponse.success(accounts,
+                accounts.size() + " of " + request.userIds().size() + " accounts found"));
+    }
+
+    /**
+     * Stream status transitions for one account (Server-Sent Events)
+     * Sends a single "status" event when the account becomes ACTIVE or FAILED,
+     * then completes. Replaces polling GET /{userId} while PENDING.
+     */
+    @GetMapping(value = "/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter accountEvents(@PathVariable String userId) {
+        return accountEventStream.subscribe(List.of(userId));
+    }
+
+    /**
+     * Stream status transitions for several accounts
+     * e.g. GET /api/accounts/events?userIds=user1,user2
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter accountsEvents(@RequestParam List<String> userIds) {
+        return accountEventStream.subscribe(userIds);
+    }
+
     /**
      * Health check
      */
@@ -79,6 +216,28 @@ public class AccountController {
                 .body(ApiResponse.error(e.getMessage()));
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotencyConflict(IdempotencyConflictException e) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotencyKeyReused(IdempotencyKeyReusedException e) {
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOverloaded(OverloadedException e) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleException(Exception e) {
         log.error("Unexpected error", e);
@@ -0,0 +1,190 @@
+package besu.optimization.account;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Account Event Stream
+ *
+ * Server-Sent Events for PENDING -> ACTIVE/FAILED transitions, replacing
+ * client polling of GET /api/accounts/{userId} during the 4-10s finality window.
+ *
+ * - Each subscription gets exactly one "status" event per account, then
+ *   the stream completes once every subscribed account has left PENDING
+ * - Open streams are servlet-async: no request thread is held while waiting
+ * - Events come from TX 2 on this node (AccountStatusChangedEvent); a periodic
+ *   sweep catches registrations completed by other backend nodes with one
+ *   query per 500 subscribed accounts
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountEventStream {
+
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final AccountRepository accountRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${accounts.events.timeout-seconds:60}")
+    private long timeoutSeconds = 60;
+
+    @Value("${accounts.events.max-user-ids:100}")
+    private int maxUserIds = 100;
+
+    private final Map<String, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+
+    // Sends happen off the TX 2 writer thread
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("accounts.events.subscribed", subscribers, Map::size)
+                .description("Accounts with at least one open status stream")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdown();
+        subscribers.values().forEach(subs -> subs.forEach(sub -> sub.emitter.complete()));
+        subscribers.clear();
+    }
+
+    /**
+     * Open a status stream for the given accounts.
+     * Accounts that are already ACTIVE/FAILED are reported immediately.
+     */
+    public SseEmitter subscribe(Collection<String> userIds) {
+        Set<String> ids = new LinkedHashSet<>(userIds);
+        if (ids.isEmpty() || ids.size() > maxUserIds) {
+            throw new IllegalArgumentException("Between 1 and " + maxUserIds + " userIds are required");
+        }
+
+        Subscription subscription = new Subscription(new SseEmitter(timeoutSeconds * 1000), ids);
+        subscription.emitter.onCompletion(() -> unregister(subscription));
+        subscription.emitter.onTimeout(subscription.emitter::complete);
+        subscription.emitter.onError(e -> unregister(subscription));
+
+        // Register before reading current state, so no transition can slip in between
+        ids.forEach(id -> subscribers.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(subscription));
+
+        List<Account> accounts = accountRepository.findByUserIdIn(ids);
+        if (accounts.isEmpty()) {
+            unregister(subscription);
+            throw new IllegalArgumentException("Account not found: " + String.join(",", ids));
+        }
+
+        Set<String> found = new HashSet<>();
+        for (Account account : accounts) {
+            found.add(account.getUserId());
+            if (account.getStatus() != 0) {
+                subscription.deliver(AccountStatusChangedEvent.from(account));
+            }
+        }
+        ids.stream().filter(id -> !found.contains(id)).forEach(subscription::drop);
+
+        return subscription.emitter;
+    }
+
+    @TransactionalEventListener
+    public void onStatusChanged(AccountStatusChangedEvent event) {
+        Set<Subscription> subs = subscribers.get(event.userId());
+        if (subs != null) {
+            subs.forEach(sub -> sender.execute(() -> sub.deliver(event)));
+        }
+    }
+
+    /**
+     * Catch transitions committed by other backend nodes
+     */
+    @Scheduled(fixedDelayString = "${accounts.events.sweep-interval-ms:2000}")
+    public void sweep() {
+        List<String> ids = new ArrayList<>(subscribers.keySet());
+        for (int from = 0; from < ids.size(); from += SWEEP_BATCH_SIZE) {
+            List<String> batch = ids.subList(from, Math.min(ids.size(), from + SWEEP_BATCH_SIZE));
+            try {
+                for (Account account : accountRepository.findByUserIdIn(batch)) {
+                    if (account.getStatus() != 0) {
+                        onStatusChanged(AccountStatusChangedEvent.from(account));
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("[events] Sweep failed: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    int subscribedAccounts() {
+        return subscribers.size();
+    }
+
+    private void unregister(Subscription subscription) {
+        for (String id : subscription.userIds) {
+            subscribers.computeIfPresent(id, (k, subs) -> {
+                subs.remove(subscription);
+                return subs.isEmpty() ? null : subs;
+            });
+        }
+    }
+
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final Set<String> userIds;
+        private final Set<String> remaining;
+
+        Subscription(SseEmitter emitter, Set<String> userIds) {
+            this.emitter = emitter;
+            this.userIds = userIds;
+            this.remaining = new HashSet<>(userIds);
+        }
+
+        synchronized void deliver(AccountStatusChangedEvent event) {
+            if (!remaining.remove(event.userId())) {
+                return; // already reported
+            }
+            try {
+                emitter.send(SseEmitter.event().name("status").data(event));
+                completeIfDone();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                unregister(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        synchronized void drop(String userId) {
+            remaining.remove(userId);
+            completeIfDone();
+        }
+
+        private void completeIfDone() {
+            if (remaining.isEmpty()) {
+                unregister(this);
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -5,14 +5,50 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Account> findByUserId(String userId);
 
+    List<Account> findByUserIdIn(Collection<String> userIds);
+
+    /**
+     * Accounts for many userIds in one statement (POST /api/accounts/lookup)
+     *
+     * One array parameter instead of IN (:list), so the statement text and
+     * its plan stay the same whatever the number of userIds.
+     */
+    @Query(value = "SELECT * FROM accounts WHERE user_id = ANY(CAST(:userIds AS text[]))", nativeQuery = true)
+    List<Account> findAllByUserIdArray(@Param("userIds") String[] userIds);
+
     boolean existsByUserId(String userId);
 
+    /**
+     * Which of the given userIds already exist (one query per bulk chunk)
+     */
+    @Query("SELECT a.userId FROM Account a WHERE a.userId IN :userIds")
+    List<String> findExistingUserIds(@Param("userIds") Collection<String> userIds);
+
+    /**
+     * Insert a PENDING account in a single round-trip
+     *
+     * The unique constraint on user_id is the real duplicate guard, so the
+     * conflict is detected by the insert itself instead of a prior
+     * existsByUserId() probe that can race under concurrency.
+     *
+     * @return generated id, or empty if the userId already exists
+     */
+    @Query(value = "INSERT INTO accounts (user_id, user_name, status, created_at, updated_at) " +
+                   "VALUES (:userId, :userName, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (user_id) DO NOTHING RETURNING id",
+           nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("userId") String userId,
+                                  @Param("userName") String userName);
+
     /**
      * Direct update query for better performance
      * Used by BlockchainUpdater for quick DB updates
@@ -23,4 +59,54 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     int updateBlockchain(@Param("userId") String userId,
                          @Param("wallet") String wallet,
                          @Param("txHash") String txHash);
+
+    @Modifying
+    @Query("UPDATE Account a SET a.status = 2, a.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE a.userId = :userId AND a.status = 0")
+    int markFailed(@Param("userId") String userId);
+
+    /**
+     * Next page of PENDING accounts created before {@code createdBefore}
+     * that have no outbox entry, i.e. nothing will ever register them
+     *
+     * Keyset paged on id (idx_accounts_status is (status, id)). The rows
+     * are locked, so a concurrent TX 2 for the same account waits for the
+     * reconciler's transaction instead of racing its outbox insert.
+     */
+    @Query(value = "SELECT a.* FROM accounts a " +
+                   "WHERE a.status = 0 AND a.id > :afterId AND a.created_at < :createdBefore " +
+                   "AND NOT EXISTS (SELECT 1 FROM registration_outbox o WHERE o.user_id = a.user_id) " +
+                   "ORDER BY a.id LIMIT :limit FOR UPDATE OF a SKIP LOCKED",
+           nativeQuery = true)
+    List<Account> findAbandonedPending(@Param("afterId") long afterId,
+                                       @Param("createdBefore") LocalDateTime createdBefore,
+                                       @Param("limit") int limit);
+
+    /**
+     * Mark many PENDING accounts FAILED in one statement
+     *
+     * @return userIds actually changed (still PENDING)
+     */
+    @Query(value = "UPDATE accounts SET status = 2, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE id IN (:ids) AND status = 0 RETURNING user_id",
+           nativeQuery = true)
+    List<String> markFailedByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Record the Idempotency-Key of a create in TX 1 (accounts.idempotency.persist)
+     *
+     * @return 0 if the key is already taken by another userId
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, user_id, created_at) " +
+                   "VALUES (:key, :userId, CURRENT_TIMESTAMP) ON CONFLICT (idempotency_key) DO NOTHING",
+           nativeQuery = true)
+    int insertIdempotencyKey(@Param("key") String key, @Param("userId") String userId);
+
+    @Query(value = "SELECT user_id FROM idempotency_keys WHERE idempotency_key = :key", nativeQuery = true)
+    Optional<String> findUserIdByIdempotencyKey(@Param("key") String key);
+
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE created_at < :before", nativeQuery = true)
+    int deleteIdempotencyKeysBefore(@Param("before") LocalDateTime before);
 }
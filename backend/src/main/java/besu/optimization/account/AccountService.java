@@ -1,18 +1,31 @@
 package besu.optimization.account;
 
-import besu.optimization.blockchain.BlockchainService;
-import besu.optimization.config.AsyncConfig;
+import besu.optimization.outbox.RegistrationOutbox;
+import besu.optimization.outbox.RegistrationOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
 /**
  * Account Service
  *
  * Demonstrates the Transaction Isolation Pattern:
- * 1. TX 1: Quick DB insert (~10ms) - then commit, release DB connection
+ * 1. TX 1: Quick DB insert (~10ms) + outbox entry - then commit, release DB connection
  * 2. Async blockchain call (~4-10s) - NO DB connection held during wait
+ *    (dispatched from the outbox by OutboxDispatcher)
  * 3. TX 2: Quick DB update (~5ms) - separate transaction
  *
  * This pattern prevents DB connection pool exhaustion under high load.
@@ -24,65 +37,217 @@ import org.springframework.transaction.annotation.Transactional;
 public class AccountService {
 
     private final AccountRepository accountRepository;
-    private final BlockchainService blockchainService;
-    private final AsyncConfig asyncConfig;
+    private final RegistrationOutboxRepository outboxRepository;
+    private final AccountCache accountCache;
+    private final UserIdBloomFilter userIdFilter;
+
+    @Value("${accounts.lookup.max-user-ids:500}")
+    private int maxLookupUserIds = 500;
 
     /**
      * Create account with Transaction Isolation Pattern
      *
-     * The blockchain registration is executed asynchronously AFTER
-     * the initial DB transaction commits. This ensures:
+     * The blockchain registration is recorded in the outbox within
+     * the same DB transaction and executed asynchronously once it
+     * commits. This ensures:
      * - DB connections are held only for ~10ms (not 4-10 seconds)
      * - The user gets immediate response
      * - Blockchain registration happens in background
+     * - Pending registrations survive a restart or crash
      */
     @Transactional
     public AccountDto createAccount(CreateAccountRequest request) {
+        return createAccount(request, null);
+    }
+
+    /**
+     * Create account and record its Idempotency-Key in the same transaction
+     *
+     * @param idempotencyKey persisted with the account when non-null
+     *                       (IdempotencyStore.persistentKey)
+     */
+    @Transactional
+    public AccountDto createAccount(CreateAccountRequest request, String idempotencyKey) {
         log.info("[createAccount] userId={}", request.userId());
 
-        // Validate
-        if (accountRepository.existsByUserId(request.userId())) {
-            throw new IllegalArgumentException("User ID already exists: " + request.userId());
+        // TX 1: Quick DB insert (~10ms), duplicate check included
+        Optional<Long> inserted = accountRepository.insertIfAbsent(request.userId(), request.userName());
+        // Known from now on, whether inserted here or by another node
+        userIdFilter.put(request.userId());
+        Long id = inserted
+                .orElseThrow(() -> new IllegalArgumentException("User ID already exists: " + request.userId()));
+        log.info("[createAccount] DB saved, id={}", id);
+
+        if (idempotencyKey != null && accountRepository.insertIdempotencyKey(idempotencyKey, request.userId()) == 0) {
+            // Rolls back the insert above
+            throw new IdempotencyKeyReusedException(idempotencyKey);
         }
 
-        // TX 1: Quick DB insert (~10ms)
-        Account account = Account.builder()
+        // Registration intent is committed atomically with the account;
+        // OutboxDispatcher picks it up after TX 1 commits
+        outboxRepository.save(RegistrationOutbox.builder()
                 .userId(request.userId())
                 .userName(request.userName())
-                .status(0) // PENDING
-                .build();
-
-        Account saved = accountRepository.save(account);
-        log.info("[createAccount] DB saved, id={}", saved.getId());
-
-        // After TX 1 commits, trigger async blockchain registration
-        // This runs OUTSIDE the current transaction
-        final String userId = saved.getUserId();
-        final String userName = saved.getUserName();
-
-        asyncConfig.runAfterCommit(() -> {
-            log.info("[bg:register] Starting blockchain registration for {}", userId);
-            try {
-                // This call takes 4-10 seconds but doesn't hold a DB connection
-                blockchainService.registerAccount(userId, userName);
-            } catch (Exception e) {
-                log.warn("[bg:register] Failed for {}: {}", userId, e.getMessage());
+                .build());
+
+        return AccountDto.pending(id, request.userId(), request.userName());
+    }
+
+    /**
+     * Create a chunk of accounts in one transaction
+     *
+     * Used by BulkAccountImporter. Per chunk:
+     * - 1 query to find already existing userIds; with accounts.bloom.enabled
+     *   (single writer node) limited to those UserIdBloomFilter cannot rule out
+     * - Batched account inserts (pooled sequence ids, see Account.id)
+     * - Batched outbox inserts, so registrations are enqueued in bulk
+     *
+     * A concurrent insert of the same userId still fails the whole chunk on
+     * the unique constraint; the caller then retries row by row.
+     *
+     * @return one result per request, in request order
+     */
+    @Transactional
+    public List<BulkCreateResult> createAccounts(List<CreateAccountRequest> requests) {
+        Set<String> candidates = new HashSet<>();
+        for (CreateAccountRequest request : requests) {
+            if (isValid(request) && userIdFilter.mightContain(request.userId())) {
+                candidates.add(request.userId());
             }
-        });
+        }
+        Set<String> existing = candidates.isEmpty()
+                ? Set.of()
+                : new HashSet<>(accountRepository.findExistingUserIds(candidates));
+
+        Set<String> seen = new HashSet<>();
+        List<Account> accounts = new ArrayList<>();
+        List<BulkCreateResult> results = new ArrayList<>(requests.size());
+
+        for (CreateAccountRequest request : requests) {
+            if (!isValid(request)) {
+                results.add(BulkCreateResult.invalid(request != null ? request.userId() : null, "userId is required"));
+            } else if (existing.contains(request.userId()) || !seen.add(request.userId())) {
+                results.add(BulkCreateResult.duplicate(request.userId()));
+            } else {
+                accounts.add(Account.builder()
+                        .userId(request.userId())
+                        .userName(request.userName())
+                        .status(0) // PENDING
+                        .build());
+                results.add(null); // filled in once ids are assigned
+            }
+        }
+
+        if (!accounts.isEmpty()) {
+            accountRepository.saveAll(accounts);
+            accounts.forEach(account -> userIdFilter.put(account.getUserId()));
+            outboxRepository.saveAll(accounts.stream()
+                    .map(account -> RegistrationOutbox.builder()
+                            .userId(account.getUserId())
+                            .userName(account.getUserName())
+                            .build())
+                    .toList());
+        }
 
-        return AccountDto.from(saved);
+        Iterator<Account> created = accounts.iterator();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, BulkCreateResult.created(created.next()));
+            }
+        }
+
+        log.info("[createAccounts] chunk={}, created={}", requests.size(), accounts.size());
+        return results;
+    }
+
+    private static boolean isValid(CreateAccountRequest request) {
+        return request != null && request.userId() != null && !request.userId().isBlank();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Get account, served from AccountCache when possible
+     *
+     * Not @Transactional: a cache hit must not check out a DB connection.
+     * On a miss, findByUserId runs in the repository's own read-only transaction.
+     */
     public AccountDto getAccount(String userId) {
-        Account account = accountRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + userId));
-        return AccountDto.from(account);
+        AccountDto account = accountCache.get(userId,
+                id -> accountRepository.findByUserId(id).map(AccountDto::from).orElse(null));
+        if (account == null) {
+            throw new IllegalArgumentException("Account not found: " + userId);
+        }
+        return account;
+    }
+
+    /**
+     * Get many accounts at once: cached ones from AccountCache, the rest
+     * with a single query
+     *
+     * Not @Transactional, for the same reason as getAccount.
+     *
+     * @return found accounts by userId, in request order; unknown userIds are absent
+     */
+    public Map<String, AccountDto> getAccounts(List<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new IllegalArgumentException("userIds is required");
+        }
+        Set<String> distinct = new LinkedHashSet<>(userIds);
+        if (distinct.contains(null)) {
+            throw new IllegalArgumentException("userIds must not contain null");
+        }
+        if (distinct.size() > maxLookupUserIds) {
+            throw new IllegalArgumentException("At most " + maxLookupUserIds + " userIds per lookup");
+        }
+
+        Map<String, AccountDto> found = accountCache.getAll(distinct, missing -> {
+            Map<String, AccountDto> loaded = new HashMap<>();
+            for (Account account : accountRepository.findAllByUserIdArray(missing.toArray(String[]::new))) {
+                loaded.put(account.getUserId(), AccountDto.from(account));
+            }
+            return loaded;
+        });
+
+        Map<String, AccountDto> ordered = new LinkedHashMap<>();
+        for (String userId : distinct) {
+            AccountDto account = found.get(userId);
+            if (account != null) {
+                ordered.put(userId, account);
+            }
+        }
+        return ordered;
     }
 
     // DTO Records
     public record CreateAccountRequest(String userId, String userName) {}
 
+    public record LookupRequest(List<String> userIds) {}
+
+    public record BulkCreateResult(String userId, Long id, String status, String message) {
+        public static BulkCreateResult created(Account account) {
+            return new BulkCreateResult(account.getUserId(), account.getId(), "CREATED", null);
+        }
+
+        public static BulkCreateResult created(AccountDto account) {
+            return new BulkCreateResult(account.userId(), account.id(), "CREATED", null);
+        }
+
+        public static BulkCreateResult duplicate(String userId) {
+            return new BulkCreateResult(userId, null, "DUPLICATE", "User ID already exists: " + userId);
+        }
+
+        public static BulkCreateResult invalid(String userId, String message) {
+            return new BulkCreateResult(userId, null, "INVALID", message);
+        }
+
+        public static BulkCreateResult failed(String userId, String message) {
+            return new BulkCreateResult(userId, null, "FAILED", message);
+        }
+
+        public static BulkCreateResult overloaded(String userId) {
+            return new BulkCreateResult(userId, null, "OVERLOADED", "Too many pending registrations, retry later");
+        }
+    }
+
     public record AccountDto(
             Long id,
             String userId,
@@ -101,5 +266,16 @@ public class AccountService {
                     account.getStatus()
             );
         }
+
+        public static AccountDto pending(Long id, String userId, String userName) {
+            return new AccountDto(id, userId, userName, null, null, 0);
+        }
+
+        public AccountDto withStatus(int status, String walletAddress, String txHash) {
+            return new AccountDto(id, userId, userName,
+                    walletAddress != null ? walletAddress : this.walletAddress,
+                    txHash != null ? txHash : this.txHash,
+                    status);
+        }
     }
 }
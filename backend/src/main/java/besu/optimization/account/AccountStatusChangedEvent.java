@@ -0,0 +1,27 @@
+package besu.optimization.account;
+
+/**
+ * Published by BlockchainUpdater inside TX 2 when an account leaves PENDING.
+ * Listeners use @TransactionalEventListener, so they only see committed changes.
+ *
+ * @param status 1: ACTIVE, 2: FAILED
+ */
+public record AccountStatusChangedEvent(
+        String userId,
+        int status,
+        String walletAddress,
+        String txHash
+) {
+    public static AccountStatusChangedEvent active(String userId, String walletAddress, String txHash) {
+        return new AccountStatusChangedEvent(userId, 1, walletAddress, txHash);
+    }
+
+    public static AccountStatusChangedEvent failed(String userId) {
+        return new AccountStatusChangedEvent(userId, 2, null, null);
+    }
+
+    public static AccountStatusChangedEvent from(Account account) {
+        return new AccountStatusChangedEvent(account.getUserId(), account.getStatus(),
+                account.getWalletAddress(), account.getTxHash());
+    }
+}
@@ -0,0 +1,155 @@
+package besu.optimization.account;
+
+import besu.optimization.account.AccountService.BulkCreateResult;
+import besu.optimization.account.AccountService.CreateAccountRequest;
+import besu.optimization.outbox.AdmissionControl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk Account Importer
+ *
+ * Streams an NDJSON body ({"userId": ..., "userName": ...} per line) into
+ * AccountService.createAccounts in fixed-size chunks, writing one NDJSON
+ * result line per input line as each chunk commits.
+ *
+ * Memory use is bounded by the chunk size, not the request size, so a
+ * 100k-user migration is one HTTP request and ~100k/chunk-size transactions.
+ * Each chunk passes admission control; a shed chunk is reported as
+ * OVERLOADED rows and the client retries those lines.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkAccountImporter {
+
+    private final AccountService accountService;
+    private final ObjectMapper objectMapper;
+    private final AdmissionControl admissionControl;
+
+    @Value("${accounts.bulk.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public void importAccounts(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        List<CreateAccountRequest> chunk = new ArrayList<>(chunkSize);
+        Map<Integer, String> malformed = new HashMap<>();
+        BulkSummary summary = new BulkSummary();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                chunk.add(objectMapper.readValue(line, CreateAccountRequest.class));
+            } catch (JsonProcessingException e) {
+                malformed.put(chunk.size(), "Malformed JSON: " + e.getOriginalMessage());
+                chunk.add(null);
+            }
+
+            if (chunk.size() >= chunkSize) {
+                writeResults(processChunk(chunk, malformed), out, summary);
+                chunk.clear();
+                malformed.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            writeResults(processChunk(chunk, malformed), out, summary);
+        }
+
+        log.info("[bulk] Import finished: {}", summary);
+    }
+
+    private List<BulkCreateResult> processChunk(List<CreateAccountRequest> chunk, Map<Integer, String> malformed) {
+        List<BulkCreateResult> results = admissionControl.tryAdmit(chunk.size())
+                ? createChunk(chunk)
+                : chunk.stream()
+                        .map(request -> BulkCreateResult.overloaded(request != null ? request.userId() : null))
+                        .toList();
+
+        if (malformed.isEmpty()) {
+            return results;
+        }
+        List<BulkCreateResult> merged = new ArrayList<>(results);
+        malformed.forEach((index, message) -> merged.set(index, BulkCreateResult.invalid(null, message)));
+        return merged;
+    }
+
+    private List<BulkCreateResult> createChunk(List<CreateAccountRequest> chunk) {
+        try {
+            return accountService.createAccounts(chunk);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer created one of the userIds after our existence check
+            log.warn("[bulk] Chunk of {} conflicted, retrying row by row", chunk.size());
+            return chunk.stream().map(this::createSingle).toList();
+        } catch (Exception e) {
+            // The response is already streaming, so report per row instead of failing the request
+            log.error("[bulk] Chunk of {} failed: {}", chunk.size(), e.getMessage());
+            return chunk.stream()
+                    .map(request -> BulkCreateResult.failed(request != null ? request.userId() : null,
+                            "Internal server error"))
+                    .toList();
+        }
+    }
+
+    private BulkCreateResult createSingle(CreateAccountRequest request) {
+        if (request == null || request.userId() == null || request.userId().isBlank()) {
+            return BulkCreateResult.invalid(request != null ? request.userId() : null, "userId is required");
+        }
+        try {
+            return BulkCreateResult.created(accountService.createAccount(request));
+        } catch (IllegalArgumentException e) {
+            return BulkCreateResult.duplicate(request.userId());
+        } catch (Exception e) {
+            log.warn("[bulk] Failed to create {}: {}", request.userId(), e.getMessage());
+            return BulkCreateResult.failed(request.userId(), "Internal server error");
+        }
+    }
+
+    private void writeResults(List<BulkCreateResult> results, OutputStream out, BulkSummary summary) throws IOException {
+        for (BulkCreateResult result : results) {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+            summary.count(result);
+        }
+        // Push each chunk's results to the client as soon as it commits
+        out.flush();
+    }
+
+    private static final class BulkSummary {
+        private int total;
+        private int created;
+
+        void count(BulkCreateResult result) {
+            total++;
+            if ("CREATED".equals(result.status())) {
+                created++;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "total=" + total + ", created=" + created + ", rejected=" + (total - created);
+        }
+    }
+}
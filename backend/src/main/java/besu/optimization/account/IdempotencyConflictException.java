@@ -0,0 +1,12 @@
+package besu.optimization.account;
+
+/**
+ * Thrown when a request reuses an Idempotency-Key whose first request is
+ * still in flight. Mapped to 409 Conflict; the client retries later.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String key) {
+        super("A request with this Idempotency-Key is still in progress: " + key);
+    }
+}
@@ -0,0 +1,12 @@
+package besu.optimization.account;
+
+/**
+ * Thrown when an Idempotency-Key is sent again with a different payload.
+ * Mapped to 422 Unprocessable Entity.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency-Key was already used with a different request: " + key);
+    }
+}
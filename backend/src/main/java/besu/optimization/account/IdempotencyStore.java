@@ -0,0 +1,144 @@
+package besu.optimization.account;
+
+import besu.optimization.account.AccountService.AccountDto;
+import besu.optimization.account.AccountService.CreateAccountRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Idempotency-Key Store for POST /api/accounts
+ *
+ * Bounded in-memory map of key -> (request, 201 response), so a client or
+ * load balancer retrying after a timeout gets the original response back
+ * without another insert, duplicate check or outbox entry.
+ *
+ * - First request with a key claims it (in flight until complete/release)
+ * - Same key while in flight: IdempotencyConflictException (409)
+ * - Same key, different payload: IdempotencyKeyReusedException (422)
+ * - Same key after completion: the stored AccountDto is replayed
+ * - A failed request releases the key, so the retry runs again
+ *
+ * With accounts.idempotency.persist=true the key is also written to
+ * idempotency_keys in TX 1 (AccountService), which covers retries that
+ * land on another node or after a restart: the insert then reports the
+ * duplicate userId and the controller replays from the persisted key.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final AccountRepository accountRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${accounts.idempotency.max-size:100000}")
+    private long maxSize = 100_000;
+
+    @Value("${accounts.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds = 86_400;
+
+    @Value("${accounts.idempotency.persist:false}")
+    private boolean persist;
+
+    // response == null while the first request is in flight
+    private record Entry(CreateAccountRequest request, AccountDto response) {}
+
+    private Cache<String, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency");
+        log.info("IdempotencyStore initialized: maxSize={}, ttl={}s, persist={}", maxSize, ttlSeconds, persist);
+    }
+
+    /**
+     * Claim key for request, or get the response of the request that already completed with it
+     *
+     * @return the response to replay, or empty if the caller now owns the key
+     */
+    public Optional<AccountDto> claim(String key, CreateAccountRequest request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+
+        Entry existing = cache.asMap().putIfAbsent(key, new Entry(request, null));
+        if (existing == null) {
+            return Optional.empty();
+        }
+        if (!existing.request().equals(request)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        if (existing.response() == null) {
+            throw new IdempotencyConflictException(key);
+        }
+        return Optional.of(existing.response());
+    }
+
+    public void complete(String key, CreateAccountRequest request, AccountDto response) {
+        cache.put(key, new Entry(request, response));
+    }
+
+    /**
+     * Give up a claimed key after a failed request
+     */
+    public void release(String key) {
+        cache.asMap().computeIfPresent(key, (k, entry) -> entry.response() == null ? null : entry);
+    }
+
+    /**
+     * Key to write in TX 1, or null if keys are not persisted
+     */
+    public String persistentKey(String key) {
+        return persist ? key : null;
+    }
+
+    /**
+     * userId a persisted key was first used for (another node, or before a restart)
+     *
+     * @throws IdempotencyKeyReusedException if it was used for a different userId
+     */
+    public Optional<String> findPersisted(String key, CreateAccountRequest request) {
+        if (!persist) {
+            return Optional.empty();
+        }
+        Optional<String> userId = accountRepository.findUserIdByIdempotencyKey(key);
+        if (userId.isPresent() && !Objects.equals(userId.get(), request.userId())) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        return userId;
+    }
+
+    @Scheduled(fixedDelayString = "${accounts.idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        if (!persist) {
+            return;
+        }
+        int deleted = accountRepository.deleteIdempotencyKeysBefore(LocalDateTime.now().minusSeconds(ttlSeconds));
+        if (deleted > 0) {
+            log.info("[idempotency] Purged {} expired keys", deleted);
+        }
+    }
+}
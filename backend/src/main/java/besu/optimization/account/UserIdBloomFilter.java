@@ -0,0 +1,247 @@
+package besu.optimization.account;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Known-userId Bloom Filter
+ *
+ * Answers "might this userId exist?" from memory, so the bulk create path
+ * only asks the DB about userIds that might (AccountService.createAccounts).
+ * New userIds are the overwhelming majority, and a definite negative
+ * needs no index probe.
+ *
+ * - Scalable: when a stage holds its capacity, a new stage with twice the
+ *   capacity and half the false-positive rate is added, so the overall
+ *   rate stays below fpp however many accounts there are
+ * - Lock-free: bits are set with AtomicLongArray CAS
+ * - Warmed once the application is ready by paging through
+ *   accounts.user_id by id; until then every userId "might exist"
+ * - Updated on every insert on this node only
+ *
+ * Off by default (accounts.bloom.enabled): accounts inserted by other nodes
+ * never reach the filter, so with several writers a single userId created
+ * elsewhere fails a whole chunk on the unique constraint and sends it
+ * through the row-by-row fallback. Enable it only where this node is the
+ * sole writer of accounts; while disabled every userId "might exist".
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserIdBloomFilter {
+
+    private static final String WARM_SQL =
+            "SELECT id, user_id FROM accounts WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${accounts.bloom.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${accounts.bloom.expected-insertions:1000000}")
+    private long expectedInsertions = 1_000_000;
+
+    @Value("${accounts.bloom.fpp:0.01}")
+    private double fpp = 0.01;
+
+    @Value("${accounts.bloom.warm-page-size:10000}")
+    private int warmPageSize = 10_000;
+
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+    private volatile boolean ready;
+
+    private Counter negatives;
+
+    @PostConstruct
+    void init() {
+        // Stage fpp halves each time, so the sum over all stages is below fpp
+        stages.add(new Stage(expectedInsertions, fpp / 2));
+
+        Gauge.builder("accounts.bloom.size", this, UserIdBloomFilter::size)
+                .description("userIds added to the filter")
+                .register(meterRegistry);
+        Gauge.builder("accounts.bloom.stages", stages, List::size)
+                .description("Filter stages (a new one is added each time the last is full)")
+                .register(meterRegistry);
+        negatives = Counter.builder("accounts.bloom.negatives")
+                .description("userIds known not to exist without a DB lookup")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("bloom-warm").start(this::warm);
+        }
+    }
+
+    /**
+     * Load every existing userId, one keyset page (short query) at a time
+     */
+    void warm() {
+        long start = System.nanoTime();
+        long afterId = 0;
+        long loaded = 0;
+        try {
+            while (true) {
+                long[] lastId = {-1};
+                long[] rows = {0};
+                jdbcTemplate.query(WARM_SQL, rs -> {
+                    lastId[0] = rs.getLong("id");
+                    put(rs.getString("user_id"));
+                    rows[0]++;
+                }, afterId, warmPageSize);
+
+                loaded += rows[0];
+                if (rows[0] < warmPageSize) {
+                    break;
+                }
+                afterId = lastId[0];
+            }
+        } catch (RuntimeException e) {
+            // Stay not-ready: every userId keeps going to the DB
+            log.warn("[bloom] Warm-up failed after {} userIds: {}", loaded, e.getMessage());
+            return;
+        }
+
+        ready = true;
+        log.info("[bloom] Warmed with {} userIds in {}ms, stages={}",
+                loaded, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), stages.size());
+    }
+
+    /**
+     * false: the userId was never inserted (as far as this node knows)
+     */
+    public boolean mightContain(String userId) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        long h1 = hash(userId);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        negatives.increment();
+        return false;
+    }
+
+    public void put(String userId) {
+        if (!enabled) {
+            return;
+        }
+        long h1 = hash(userId);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return;
+            }
+        }
+        Stage last = stages.get(stages.size() - 1);
+        if (last.count.sum() >= last.capacity) {
+            last = grow(last);
+        }
+        last.put(h1, h2);
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    long size() {
+        return stages.stream().mapToLong(stage -> stage.count.sum()).sum();
+    }
+
+    private synchronized Stage grow(Stage full) {
+        Stage last = stages.get(stages.size() - 1);
+        if (last != full) {
+            // Another thread grew it already
+            return last;
+        }
+        Stage next = new Stage(full.capacity * 2, full.fpp / 2);
+        stages.add(next);
+        log.info("[bloom] Stage {} full at {} userIds, added capacity {}", stages.size() - 1, full.capacity,
+                next.capacity);
+        return next;
+    }
+
+    /**
+     * 64-bit hash of the userId's UTF-16 chars (no byte[] allocation)
+     */
+    static long hash(String value) {
+        long h = 0xCBF29CE484222325L ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    // MurmurHash3 fmix64
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * One fixed-size Bloom filter: bitCount and hash count sized for
+     * capacity userIds at the given false-positive rate
+     */
+    private static final class Stage {
+        final long capacity;
+        final double fpp;
+        final long bitCount;
+        final int hashes;
+        final AtomicLongArray words;
+        final LongAdder count = new LongAdder();
+
+        Stage(long capacity, double fpp) {
+            this.capacity = capacity;
+            this.fpp = fpp;
+            long bits = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.max(1, (bits + 63) / 64);
+            this.bitCount = (long) wordCount * 64;
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.words = new AtomicLongArray(wordCount);
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+            }
+            count.increment();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package besu.optimization.blockchain;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive Concurrency Limiter (AIMD)
+ *
+ * Governs how many middleware calls are in flight, instead of relying on
+ * the fixed 64 workers from the paper's hardware.
+ *
+ * - Additive increase: +1 per limit's worth of successful calls (~+1 per RTT),
+ *   only while the limit is actually being used
+ * - Multiplicative decrease: limit * backoff-ratio on 429/5xx/timeouts/IO errors only
+ * - Latency is not a congestion signal: registration latency is dominated by
+ *   4-10s block finality, so a third of healthy calls would otherwise look
+ *   "slow" against the minimum and pin the limit near min-limit
+ *
+ * Exposes limit, in-flight count and RTT estimates (smoothed and minimum,
+ * re-based periodically) as middleware.limiter.* gauges.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double RTT_SMOOTHING = 0.1;
+    private static final int RTT_REBASE_SAMPLES = 1000;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${middleware.limiter.initial-limit:64}")
+    private int initialLimit = 64;
+
+    @Value("${middleware.limiter.min-limit:4}")
+    private int minLimit = 4;
+
+    @Value("${middleware.limiter.max-limit:1024}")
+    private int maxLimit = 1024;
+
+    @Value("${middleware.limiter.backoff-ratio:0.9}")
+    private double backoffRatio = 0.9;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private double rttEwmaNanos;
+    private long rttNoLoadNanos = Long.MAX_VALUE;
+    private int samplesSinceRebase;
+
+    @PostConstruct
+    void init() {
+        limit = initialLimit;
+
+        Gauge.builder("middleware.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for middleware calls")
+                .register(meterRegistry);
+        Gauge.builder("middleware.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Middleware calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("middleware.limiter.rtt", this, AdaptiveConcurrencyLimiter::getRttEstimateMs)
+                .description("Smoothed middleware call latency")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("middleware.limiter.rtt.noload", this, AdaptiveConcurrencyLimiter::getNoLoadRttMs)
+                .description("Minimum observed middleware call latency")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        log.info("AdaptiveConcurrencyLimiter initialized: initial={}, min={}, max={}",
+                initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Wait until a call may start. The returned permit must be completed
+     * with exactly one of success/dropped/ignore (extra calls are no-ops).
+     */
+    public Permit acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                permitAvailable.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+        return new Permit(System.nanoTime());
+    }
+
+    void onSample(long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            if (!dropped) {
+                rttEwmaNanos = rttEwmaNanos == 0
+                        ? rttNanos
+                        : rttEwmaNanos + RTT_SMOOTHING * (rttNanos - rttEwmaNanos);
+
+                if (++samplesSinceRebase >= RTT_REBASE_SAMPLES) {
+                    rttNoLoadNanos = (long) rttEwmaNanos;
+                    samplesSinceRebase = 0;
+                }
+                rttNoLoadNanos = Math.min(rttNoLoadNanos, rttNanos);
+            }
+
+            if (dropped) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlight >= limit / 2) {
+                // Only grow while the current limit is actually being used
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long rttNanos, Boolean dropped) {
+        if (dropped != null) {
+            onSample(rttNanos, dropped);
+        }
+        lock.lock();
+        try {
+            inFlight--;
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getRttEstimateMs() {
+        lock.lock();
+        try {
+            return rttEwmaNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getNoLoadRttMs() {
+        lock.lock();
+        try {
+            return rttNoLoadNanos == Long.MAX_VALUE ? 0 : (double) rttNoLoadNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final class Permit {
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /** Call completed normally; its latency feeds the limit */
+        public void success() {
+            complete(false);
+        }
+
+        /** Call was rejected or failed due to overload (429, 5xx, timeout, IO error) */
+        public void dropped() {
+            complete(true);
+        }
+
+        /** Call outcome says nothing about capacity (e.g. 4xx validation error) */
+        public void ignore() {
+            if (released.compareAndSet(false, true)) {
+                release(0, null);
+            }
+        }
+
+        private void complete(boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                release(System.nanoTime() - startNanos, dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package besu.optimization.blockchain;
+
+import besu.optimization.blockchain.BlockchainUpdater.BlockchainUpdate;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Besu Account Registrar (blockchain.client=native)
+ *
+ * Does in-process what the Node middleware's POST /api/accounts/register
+ * does, talking JSON-RPC to Besu directly:
+ * 1. Generate a secp256k1 key pair for the new wallet
+ * 2. Sign NativeTokenFaucetV1.open() with the new key (nonce 0, gas price 0)
+ * 3. eth_sendRawTransaction, then leave the wait to ConfirmationTracker,
+ *    which also writes TX 2 for the block the transaction lands in
+ *
+ * The new wallet has no balance, so this relies on the network's free gas
+ * (min-gas-price=0, zeroBaseFee in genesis.json). As in the middleware:
+ * - Without blockchain.native.faucet-address no funding is attempted
+ * - A reverted or rejected open() leaves the account registered with txHash null
+ * - The private key is not kept
+ * Transport failures and confirmation timeouts fail the future, so the
+ * registration is retried.
+ *
+ * blockchain.native.funding=funder replaces open() with a plain transfer of
+ * funding-amount-wei from one funder key. The transfers are pipelined:
+ * nonces come from NonceManager, so many can go out per block, and a nonce
+ * the node rejects as taken is resynced and the transfer re-signed. A
+ * transfer the node accepted but never mined (dropped from the pool) hits
+ * the confirmation timeout; its nonce is then reconciled, so later
+ * transfers are not stuck behind the hole.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BesuAccountRegistrar {
+
+    // First 4 bytes of keccak256("open()")
+    static final String OPEN_SELECTOR = "0xfcfff16f";
+
+    private static final long TRANSFER_GAS_LIMIT = 21_000;
+    private static final int MAX_NONCE_ATTEMPTS = 3;
+
+    private final JsonRpcClient jsonRpcClient;
+    private final ConfirmationTracker confirmationTracker;
+    private final NonceManager nonceManager;
+
+    @Value("${blockchain.native.chain-id:1337}")
+    private long chainId = 1337;
+
+    @Value("${blockchain.native.faucet-address:}")
+    private String faucetAddress = "";
+
+    @Value("${blockchain.native.gas-price:0}")
+    private long gasPrice = 0;
+
+    @Value("${blockchain.native.open-gas-limit:100000}")
+    private long openGasLimit = 100_000;
+
+    // faucet: the new wallet calls open(); funder: the funder key transfers to it
+    @Value("${blockchain.native.funding:faucet}")
+    private String funding = "faucet";
+
+    @Value("${blockchain.native.funder-private-key:}")
+    private String funderPrivateKey = "";
+
+    @Value("${blockchain.native.funding-amount-wei:1000000000000000000}")
+    private BigInteger fundingAmountWei = BigInteger.TEN.pow(18);
+
+    private Credentials funder;
+
+    @PostConstruct
+    void init() {
+        if ("funder".equalsIgnoreCase(funding)) {
+            if (funderPrivateKey.isBlank()) {
+                throw new IllegalStateException("blockchain.native.funding=funder requires funder-private-key");
+            }
+            funder = Credentials.create(funderPrivateKey);
+            log.info("BesuAccountRegistrar initialized: chainId={}, funder={}, amount={} wei",
+                    chainId, funder.getAddress(), fundingAmountWei);
+            return;
+        }
+        log.info("BesuAccountRegistrar initialized: chainId={}, faucet={}",
+                chainId, faucetAddress.isBlank() ? "(none, no funding)" : faucetAddress);
+    }
+
+    /**
+     * recorded: TX 2 was already written by ConfirmationTracker
+     */
+    public record WalletRegistration(String walletAddress, String txHash, boolean recorded) {}
+
+    /**
+     * Create and fund a wallet for userId. Only the send happens on the
+     * calling thread; the future completes when the block is seen.
+     */
+    public CompletableFuture<WalletRegistration> register(String reqId, String userId) {
+        Credentials wallet = createWallet();
+        String address = wallet.getAddress();
+
+        if (funder != null) {
+            return fund(reqId, userId, address);
+        }
+        if (faucetAddress.isBlank()) {
+            return CompletableFuture.completedFuture(new WalletRegistration(address, null, false));
+        }
+
+        String signed = signOpen(wallet);
+        String txHash = Hash.sha3(signed);
+
+        CompletableFuture<ConfirmationTracker.Confirmation> confirmation =
+                confirmationTracker.track(txHash, new BlockchainUpdate(userId, address, txHash));
+        try {
+            jsonRpcClient.call("eth_sendRawTransaction", signed);
+        } catch (JsonRpcException e) {
+            confirmationTracker.untrack(txHash);
+            log.warn("[native/register] reqId={}, funding rejected: {}", reqId, e.getMessage());
+            return CompletableFuture.completedFuture(new WalletRegistration(address, null, false));
+        } catch (RuntimeException e) {
+            confirmationTracker.untrack(txHash);
+            throw e;
+        }
+
+        return confirmed(reqId, address, txHash, confirmation);
+    }
+
+    /**
+     * Funder-pays: transfer funding-amount-wei to the new wallet from the funder key
+     */
+    private CompletableFuture<WalletRegistration> fund(String reqId, String userId, String address) {
+        String sender = funder.getAddress();
+
+        for (int attempt = 1; ; attempt++) {
+            long nonce = nonceManager.allocate(sender);
+            String signed = signTransfer(address, nonce);
+            String txHash = Hash.sha3(signed);
+
+            CompletableFuture<ConfirmationTracker.Confirmation> confirmation =
+                    reconcileOnTimeout(sender, nonce, txHash,
+                            confirmationTracker.track(txHash, new BlockchainUpdate(userId, address, txHash)));
+            try {
+                jsonRpcClient.call("eth_sendRawTransaction", signed);
+                return confirmed(reqId, address, txHash, confirmation);
+            } catch (JsonRpcException e) {
+                NonceManager.Rejection rejection = NonceManager.classify(e);
+                if (rejection == NonceManager.Rejection.ALREADY_KNOWN) {
+                    // Same signed transaction already in the pool (e.g. a resend after a timeout)
+                    return confirmed(reqId, address, txHash, confirmation);
+                }
+                confirmationTracker.untrack(txHash);
+
+                switch (rejection) {
+                    case NONCE_TOO_LOW, REPLACEMENT_UNDERPRICED -> nonceManager.resync(sender);
+                    case NONCE_TOO_HIGH -> nonceManager.reset(sender);
+                    default -> {
+                        nonceManager.release(sender, nonce);
+                        log.warn("[native/fund] reqId={}, funding rejected: {}", reqId, e.getMessage());
+                        return CompletableFuture.completedFuture(new WalletRegistration(address, null, false));
+                    }
+                }
+                if (attempt >= MAX_NONCE_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("[native/fund] reqId={}, nonce {} {}, re-signing", reqId, nonce, rejection);
+            } catch (RuntimeException e) {
+                confirmationTracker.untrack(txHash);
+                nonceManager.reconcile(sender, nonce, txHash);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * On a confirmation timeout, give the nonce back if the node no longer
+     * has the transaction, before the registration fails and is retried.
+     * Runs off the tracker thread, as reconcile is a blocking RPC call.
+     */
+    private CompletableFuture<ConfirmationTracker.Confirmation> reconcileOnTimeout(
+            String sender, long nonce, String txHash,
+            CompletableFuture<ConfirmationTracker.Confirmation> confirmation) {
+        return confirmation.whenCompleteAsync((result, error) -> {
+            if (error instanceof TimeoutException) {
+                log.warn("[native/fund] nonce {} not mined in time, reconciling: {}", nonce, txHash);
+                nonceManager.reconcile(sender, nonce, txHash);
+            }
+        }, task -> Thread.ofVirtual().name("nonce-reconcile").start(task));
+    }
+
+    private CompletableFuture<WalletRegistration> confirmed(String reqId, String address, String txHash,
+                                                            CompletableFuture<ConfirmationTracker.Confirmation> confirmation) {
+        return confirmation.thenApply(result -> {
+            if (result.status() != ConfirmationTracker.Status.CONFIRMED) {
+                log.warn("[native/register] reqId={}, funding reverted, txHash={}", reqId, txHash);
+                return new WalletRegistration(address, null, false);
+            }
+            return new WalletRegistration(address, txHash, true);
+        });
+    }
+
+    String signTransfer(String to, long nonce) {
+        RawTransaction transfer = RawTransaction.createEtherTransaction(
+                BigInteger.valueOf(nonce),
+                BigInteger.valueOf(gasPrice),
+                BigInteger.valueOf(TRANSFER_GAS_LIMIT),
+                to,
+                fundingAmountWei);
+        return Numeric.toHexString(TransactionEncoder.signMessage(transfer, chainId, funder));
+    }
+
+    String signOpen(Credentials wallet) {
+        RawTransaction open = RawTransaction.createTransaction(
+                BigInteger.ZERO,                    // fresh key, first transaction
+                BigInteger.valueOf(gasPrice),
+                BigInteger.valueOf(openGasLimit),
+                faucetAddress,
+                BigInteger.ZERO,
+                OPEN_SELECTOR);
+        return Numeric.toHexString(TransactionEncoder.signMessage(open, chainId, wallet));
+    }
+
+    private static Credentials createWallet() {
+        try {
+            return Credentials.create(Keys.createEcKeyPair());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("secp256k1 key generation failed", e);
+        }
+    }
+}
@@ -1,26 +1,35 @@
 package besu.optimization.blockchain;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import besu.optimization.config.AsyncConfig;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientResponseException;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Blockchain Service
  *
- * Calls the Node.js middleware layer (Layer 2) to interact with Besu.
+ * Calls the Node.js middleware layer (Layer 2) to interact with Besu,
+ * or Besu directly via BesuAccountRegistrar with blockchain.client=native
+ * (confirmed per block by ConfirmationTracker).
  * Implements retry logic with exponential backoff for resilience.
  *
  * Key features:
- * - 3 retry attempts with exponential backoff (200ms -> 400ms -> 800ms)
+ * - 3 attempts with full-jitter exponential backoff (up to 200ms, then 400ms)
+ * - Backoff waits on a timer, releasing the worker between attempts
  * - Handles 5xx and 429 errors with retries
+ * - In-flight calls bounded by AdaptiveConcurrencyLimiter
+ * - Fails fast while MiddlewareCircuitBreaker is open
  * - Uses non-blocking RestClient with connection pooling
  */
 @Slf4j
@@ -29,20 +38,67 @@ import java.util.UUID;
 public class BlockchainService {
 
     private final RestClient middlewareRestClient;
-    private final ObjectMapper objectMapper;
-    private final BlockchainUpdater blockchainUpdater;
+    private final BlockchainUpdateBatcher updateBatcher;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final MiddlewareCircuitBreaker circuitBreaker;
+    private final AsyncConfig asyncConfig;
+    private final BesuAccountRegistrar besuRegistrar;
+    private final RegistrationMetrics registrationMetrics;
+
+    // middleware: Java -> Node -> Besu, native: Java -> Besu JSON-RPC
+    @Value("${blockchain.client:middleware}")
+    private String client = "middleware";
 
     private static final int MAX_ATTEMPTS = 3;
     private static final long INITIAL_BACKOFF_MS = 200L;
+    private static final long MAX_BACKOFF_MS = 2000L;
+
+    /**
+     * REGISTERED: TX 2 queued. FAILED: attempts used up or rejected by the middleware.
+     * DEFERRED: not attempted (further) because the circuit is open.
+     */
+    public enum RegistrationResult { REGISTERED, FAILED, DEFERRED }
+
+    private enum Outcome { SUCCESS, FAILED, RETRY, DEFERRED }
+
+    private record Registration(String reqId, String userId, Map<String, Object> request) {}
+
+    /**
+     * Middleware POST /api/accounts/register response, reduced to the fields
+     * TX 2 needs. Jackson binds it straight from the response stream, with
+     * no intermediate String or JsonNode tree.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record RegisterResponse(boolean success, Data data) {
+
+        @JsonIgnoreProperties(ignoreUnknown = true)
+        record Data(String walletAddress, InitialFunding initialFunding) {}
+
+        @JsonIgnoreProperties(ignoreUnknown = true)
+        record InitialFunding(String txHash) {}
+    }
+
+    /**
+     * Register account on blockchain via middleware, blocking until done.
+     * Retries still wait on the AsyncConfig timer, but the caller is held.
+     */
+    public boolean registerAccount(String userId, String userName) {
+        return registerAccountAsync(userId, userName).join() == RegistrationResult.REGISTERED;
+    }
 
     /**
      * Register account on blockchain via middleware
      *
-     * This method is called asynchronously from AccountService.
+     * This method is called asynchronously from OutboxDispatcher.
      * The ~4-10 second blockchain wait does NOT hold a DB connection
      * because of the Transaction Isolation Pattern.
+     *
+     * The first attempt runs on the calling thread. Retries are scheduled
+     * on the AsyncConfig timer, so no worker sits idle during the backoff.
+     * While MiddlewareCircuitBreaker is open, no call is made and the
+     * result is DEFERRED.
      */
-    public boolean registerAccount(String userId, String userName) {
+    public CompletableFuture<RegistrationResult> registerAccountAsync(String userId, String userName) {
         final String reqId = UUID.randomUUID().toString();
         log.info("[blockchain/register] reqId={}, userId={}", reqId, userId);
 
@@ -52,108 +108,225 @@ public class BlockchainService {
                 "role", 0
         );
 
-        long backoffMs = INITIAL_BACKOFF_MS;
+        CompletableFuture<RegistrationResult> result = new CompletableFuture<>();
+        attempt(new Registration(reqId, userId, request), 1, result);
+        return result;
+    }
 
-        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
-            try {
-                var response = middlewareRestClient.post()
-                        .uri("/api/accounts/register")
-                        .header("X-Request-Id", reqId)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .accept(MediaType.APPLICATION_JSON)
-                        .body(request)
-                        .retrieve()
-                        .toEntity(String.class);
+    private void attempt(Registration registration, int attempt, CompletableFuture<RegistrationResult> result) {
+        boolean isNative = "native".equalsIgnoreCase(client);
+        long start = System.nanoTime();
+        CompletableFuture<Outcome> call;
+        try {
+            call = isNative
+                    ? callNative(registration, attempt)
+                    : CompletableFuture.completedFuture(callMiddleware(registration, attempt));
+        } catch (Exception e) {
+            registrationMetrics.recordCall(isNative ? "native" : "middleware", "error", System.nanoTime() - start);
+            fail(result, attempt, e);
+            return;
+        }
 
-                var status = response.getStatusCode();
-                var body = response.getBody();
+        call.whenComplete((outcome, error) -> {
+            registrationMetrics.recordCall(isNative ? "native" : "middleware",
+                    error != null ? "error" : outcome.name().toLowerCase(), System.nanoTime() - start);
+            if (error != null) {
+                fail(result, attempt, error);
+                return;
+            }
+            if (outcome == Outcome.RETRY && attempt < MAX_ATTEMPTS) {
+                long delayMs = backoffDelayMs(attempt);
+                log.info("[blockchain/register] reqId={}, retrying in {}ms", registration.reqId(), delayMs);
+                long scheduled = System.nanoTime();
+                try {
+                    asyncConfig.runLater(() -> {
+                        registrationMetrics.recordRetryDelay(System.nanoTime() - scheduled);
+                        attempt(registration, attempt + 1, result);
+                    }, delayMs);
+                } catch (Exception e) {
+                    fail(result, attempt, e);
+                }
+                return;
+            }
+            RegistrationResult registrationResult = switch (outcome) {
+                case SUCCESS -> RegistrationResult.REGISTERED;
+                case DEFERRED -> RegistrationResult.DEFERRED;
+                default -> RegistrationResult.FAILED;
+            };
+            registrationMetrics.recordAttempts(attempt, registrationResult.name().toLowerCase());
+            result.complete(registrationResult);
+        });
+    }
 
-                log.info("[blockchain/register] reqId={}, attempt={}, status={}", reqId, attempt, status);
+    private void fail(CompletableFuture<RegistrationResult> result, int attempt, Throwable error) {
+        registrationMetrics.recordAttempts(attempt, "error");
+        result.completeExceptionally(error);
+    }
 
-                if (status.is2xxSuccessful() && body != null) {
-                    return handleSuccessResponse(reqId, userId, body);
-                }
+    /**
+     * Full jitter: uniform in [0, min(cap, base * 2^(attempt-1))], so retries
+     * after a middleware blip spread out instead of arriving in waves
+     */
+    static long backoffDelayMs(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
 
-                // Retry on 5xx or 429
-                if (status.is5xxServerError() || status.value() == 429) {
-                    if (attempt < MAX_ATTEMPTS) {
-                        sleepQuietly(backoffMs);
-                        backoffMs *= 2;
-                        continue;
-                    }
-                }
+    private Outcome callMiddleware(Registration registration, int attempt) {
+        final String reqId = registration.reqId();
 
-                log.warn("[blockchain/register] reqId={}, failed with status={}", reqId, status);
-                return false;
+        // Fail fast instead of waiting out the response timeout on a stalled middleware
+        MiddlewareCircuitBreaker.Call call = circuitBreaker.tryAcquire();
+        if (call == null) {
+            log.info("[blockchain/register] reqId={}, circuit open, deferring", reqId);
+            return Outcome.DEFERRED;
+        }
 
-            } catch (RestClientResponseException e) {
-                log.error("[blockchain/register] reqId={}, attempt={}, HTTP error: {}",
-                        reqId, attempt, e.getStatusCode());
+        AdaptiveConcurrencyLimiter.Permit permit;
+        try {
+            // Waits while the adaptive in-flight limit is reached
+            permit = concurrencyLimiter.acquire();
+        } catch (InterruptedException e) {
+            call.ignore();
+            Thread.currentThread().interrupt();
+            return Outcome.FAILED;
+        }
 
-                int code = e.getStatusCode().value();
-                if ((code >= 500 || code == 429) && attempt < MAX_ATTEMPTS) {
-                    sleepQuietly(backoffMs);
-                    backoffMs *= 2;
-                    continue;
-                }
-                return false;
+        long start = System.nanoTime();
+        try {
+            var response = middlewareRestClient.post()
+                    .uri("/api/accounts/register")
+                    .header("X-Request-Id", reqId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .body(registration.request())
+                    .retrieve()
+                    .toEntity(RegisterResponse.class);
 
-            } catch (Exception e) {
-                log.error("[blockchain/register] reqId={}, attempt={}, error: {}",
-                        reqId, attempt, e.getMessage());
+            var status = response.getStatusCode();
+            var body = response.getBody();
 
-                if (attempt < MAX_ATTEMPTS) {
-                    sleepQuietly(backoffMs);
-                    backoffMs *= 2;
-                    continue;
-                }
-                return false;
-            }
-        }
+            log.info("[blockchain/register] reqId={}, attempt={}, status={}", reqId, attempt, status);
 
-        return false;
-    }
+            if (status.is2xxSuccessful() && body != null) {
+                permit.success();
+                call.success(System.nanoTime() - start);
+                return handleSuccessResponse(reqId, registration.userId(), body)
+                        ? Outcome.SUCCESS : Outcome.FAILED;
+            }
 
-    private boolean handleSuccessResponse(String reqId, String userId, String body) {
-        try {
-            JsonNode root = objectMapper.readTree(body);
-
-            if (root.has("success") && root.get("success").asBoolean()) {
-                JsonNode data = root.get("data");
-                if (data != null) {
-                    String walletAddress = data.has("walletAddress")
-                            ? data.get("walletAddress").asText() : null;
-
-                    String txHash = null;
-                    if (data.has("initialFunding")) {
-                        JsonNode funding = data.get("initialFunding");
-                        txHash = funding.has("txHash") ? funding.get("txHash").asText() : null;
-                    }
-
-                    if (walletAddress != null) {
-                        // TX 2: Quick DB update with separate transaction
-                        blockchainUpdater.updateBlockchain(userId, walletAddress, txHash);
-                        log.info("[blockchain/register] Success! wallet={}, txHash={}",
-                                walletAddress, txHash);
-                        return true;
-                    }
-                }
+            // Retry on 5xx or 429
+            if (status.is5xxServerError() || status.value() == 429) {
+                permit.dropped();
+                call.failure(System.nanoTime() - start);
+                return Outcome.RETRY;
             }
 
-            log.warn("[blockchain/register] reqId={}, success=false in response", reqId);
-            return false;
+            log.warn("[blockchain/register] reqId={}, failed with status={}", reqId, status);
+            return Outcome.FAILED;
+
+        } catch (RestClientResponseException e) {
+            log.error("[blockchain/register] reqId={}, attempt={}, HTTP error: {}",
+                    reqId, attempt, e.getStatusCode());
+
+            int code = e.getStatusCode().value();
+            if (code >= 500 || code == 429) {
+                permit.dropped();
+                call.failure(System.nanoTime() - start);
+                return Outcome.RETRY;
+            }
+            return Outcome.FAILED;
 
         } catch (Exception e) {
-            log.error("[blockchain/register] reqId={}, parse error: {}", reqId, e.getMessage());
-            return false;
+            if (e.getCause() instanceof HttpMessageNotReadableException) {
+                // 2xx with a body we cannot read: the middleware answered, retrying won't help
+                log.error("[blockchain/register] reqId={}, parse error: {}", reqId, e.getMessage());
+                permit.success();
+                call.success(System.nanoTime() - start);
+                return Outcome.FAILED;
+            }
+            log.error("[blockchain/register] reqId={}, attempt={}, error: {}",
+                    reqId, attempt, e.getMessage());
+
+            // Timeouts and connection errors count as overload
+            permit.dropped();
+            call.failure(System.nanoTime() - start);
+            return Outcome.RETRY;
+
+        } finally {
+            // Releases the permit if no outcome was recorded above (e.g. 4xx)
+            permit.ignore();
+            call.ignore();
         }
     }
 
-    private static void sleepQuietly(long ms) {
+    /**
+     * blockchain.client=native: send open() to Besu and complete when
+     * ConfirmationTracker sees it in a block. No thread waits for the block;
+     * the limiter permit is held until then, as for a middleware call.
+     */
+    private CompletableFuture<Outcome> callNative(Registration registration, int attempt) {
+        final String reqId = registration.reqId();
+
+        MiddlewareCircuitBreaker.Call call = circuitBreaker.tryAcquire();
+        if (call == null) {
+            log.info("[blockchain/register] reqId={}, circuit open, deferring", reqId);
+            return CompletableFuture.completedFuture(Outcome.DEFERRED);
+        }
+
+        AdaptiveConcurrencyLimiter.Permit permit;
         try {
-            Thread.sleep(ms);
+            permit = concurrencyLimiter.acquire();
         } catch (InterruptedException e) {
+            call.ignore();
             Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(Outcome.FAILED);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<BesuAccountRegistrar.WalletRegistration> registered;
+        try {
+            registered = besuRegistrar.register(reqId, registration.userId());
+        } catch (Exception e) {
+            registered = CompletableFuture.failedFuture(e);
+        }
+
+        return registered.handle((wallet, error) -> {
+            long elapsed = System.nanoTime() - start;
+            if (error != null) {
+                log.error("[blockchain/register] reqId={}, attempt={}, native error: {}",
+                        reqId, attempt, error.getMessage());
+                permit.dropped();
+                call.failure(elapsed);
+                return Outcome.RETRY;
+            }
+
+            permit.success();
+            call.success(elapsed);
+            if (!wallet.recorded()) {
+                // Nothing mined (no faucet / rejected / reverted): TX 2 as for a middleware response
+                updateBatcher.submit(registration.userId(), wallet.walletAddress(), wallet.txHash());
+            }
+            log.info("[blockchain/register] Success (native)! wallet={}, txHash={}",
+                    wallet.walletAddress(), wallet.txHash());
+            return Outcome.SUCCESS;
+        });
+    }
+
+    private boolean handleSuccessResponse(String reqId, String userId, RegisterResponse body) {
+        if (body.success() && body.data() != null && body.data().walletAddress() != null) {
+            String walletAddress = body.data().walletAddress();
+            String txHash = body.data().initialFunding() != null
+                    ? body.data().initialFunding().txHash() : null;
+
+            // TX 2: Quick DB update, coalesced with other completed
+            // registrations into one short batch transaction
+            updateBatcher.submit(userId, walletAddress, txHash);
+            log.info("[blockchain/register] Success! wallet={}, txHash={}", walletAddress, txHash);
+            return true;
         }
+
+        log.warn("[blockchain/register] reqId={}, success=false in response", reqId);
+        return false;
     }
 }
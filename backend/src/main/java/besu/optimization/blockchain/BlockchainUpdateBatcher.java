@@ -0,0 +1,192 @@
+package besu.optimization.blockchain;
+
+import besu.optimization.blockchain.BlockchainUpdater.BlockchainUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blockchain Update Batcher
+ *
+ * Write-behind stage for TX 2. Completed registrations are queued and
+ * flushed by a single writer thread as one JDBC batch per flush:
+ * - Flush when max-size rows are pending, or max-delay-ms after the first
+ * - At 678 TPS and 10ms delay: ~100 commits/sec instead of 678
+ * - If a batch fails, rows are retried one by one so a single bad row
+ *   cannot drop the whole batch
+ *
+ * Rows that still fail keep their outbox entry, so the registration is
+ * dispatched again once its lease expires.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BlockchainUpdateBatcher {
+
+    private final BlockchainUpdater blockchainUpdater;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${blockchain.update-batch.max-size:500}")
+    private int maxBatchSize = 500;
+
+    @Value("${blockchain.update-batch.max-delay-ms:10}")
+    private long maxDelayMs = 10;
+
+    @Value("${blockchain.update-batch.queue-capacity:20000}")
+    private int queueCapacity = 20000;
+
+    private BlockingQueue<BlockchainUpdate> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private DistributionSummary batchSize;
+    private Timer batchFlush;
+    private Timer fallbackFlush;
+    private Counter rowFailures;
+
+    @PostConstruct
+    void init() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        batchSize = DistributionSummary.builder("blockchain.tx2.batch.size")
+                .description("Rows written per TX 2 flush")
+                .register(meterRegistry);
+        batchFlush = Timer.builder("blockchain.tx2.flush")
+                .description("TX 2 flush latency")
+                .tag("mode", "batch")
+                .register(meterRegistry);
+        fallbackFlush = Timer.builder("blockchain.tx2.flush")
+                .description("TX 2 flush latency")
+                .tag("mode", "per-row")
+                .register(meterRegistry);
+        rowFailures = Counter.builder("blockchain.tx2.row.failures")
+                .description("Rows that could not be written by TX 2")
+                .register(meterRegistry);
+
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("tx2-writer")
+                .daemon(true)
+                .start(this::writeLoop);
+
+        log.info("BlockchainUpdateBatcher initialized: maxSize={}, maxDelayMs={}, queue={}",
+                maxBatchSize, maxDelayMs, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        log.info("Shutting down BlockchainUpdateBatcher, pending={}", queue.size());
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Flush whatever arrived after the writer stopped
+        List<BlockchainUpdate> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    /**
+     * Queue a completed registration for TX 2.
+     * Falls back to a synchronous single-row update when the queue is full.
+     */
+    public void submit(String userId, String walletAddress, String txHash) {
+        BlockchainUpdate update = new BlockchainUpdate(userId, walletAddress, txHash);
+        if (!queue.offer(update)) {
+            log.warn("[tx2-writer] Queue full, updating {} inline", userId);
+            writeSingle(update);
+        }
+    }
+
+    private void writeLoop() {
+        List<BlockchainUpdate> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                BlockchainUpdate first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Collect more rows until the batch is full or the delay expires
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remainingNanos <= 0) {
+                        break;
+                    }
+                    BlockchainUpdate next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Never drop rows that were already collected
+                if (!running) {
+                    queue.drainTo(batch);
+                }
+                flush(batch);
+                if (!running) {
+                    return;
+                }
+            } catch (Exception e) {
+                log.error("[tx2-writer] Unexpected error: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<BlockchainUpdate> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSize.record(batch.size());
+
+        long start = System.nanoTime();
+        try {
+            int[] rows = blockchainUpdater.updateBlockchainBatch(batch);
+            batchFlush.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i] == 0) {
+                    rowFailures.increment();
+                    log.warn("[tx2-writer] No rows updated for userId={}", batch.get(i).userId());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[tx2-writer] Batch of {} failed, retrying per row: {}", batch.size(), e.getMessage());
+            batch.forEach(this::writeSingle);
+            fallbackFlush.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void writeSingle(BlockchainUpdate update) {
+        try {
+            blockchainUpdater.updateBlockchain(update.userId(), update.walletAddress(), update.txHash());
+        } catch (Exception e) {
+            rowFailures.increment();
+            log.error("[tx2-writer] Update failed for userId={}: {}", update.userId(), e.getMessage());
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package besu.optimization.blockchain;
 
 import besu.optimization.account.AccountRepository;
+import besu.optimization.account.AccountStatusChangedEvent;
+import besu.optimization.outbox.RegistrationOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.List;
 
 /**
  * Blockchain Updater
@@ -29,13 +38,26 @@ import org.springframework.transaction.annotation.Transactional;
 public class BlockchainUpdater {
 
     private final AccountRepository accountRepository;
+    private final RegistrationOutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RegistrationMetrics registrationMetrics;
+
+    private static final String UPDATE_SQL =
+            "UPDATE accounts SET wallet_address = ?, tx_hash = ?, status = 1, " +
+            "updated_at = CURRENT_TIMESTAMP WHERE user_id = ?";
+
+    // One statement for the whole batch; created_at gives the end-to-end time
+    private static final String DELETE_OUTBOX_SQL =
+            "DELETE FROM registration_outbox WHERE user_id = ANY(?) RETURNING created_at";
 
     /**
      * Update account with blockchain information
      *
      * REQUIRES_NEW ensures this runs in a NEW, separate transaction.
      * This transaction is very short (~5ms) and immediately releases
-     * the DB connection.
+     * the DB connection. The outbox entry is removed in the same
+     * transaction, so a registration is never dispatched again once stored.
      *
      * timeout=5 seconds for safety (should complete in milliseconds)
      */
@@ -50,6 +72,84 @@ public class BlockchainUpdater {
             throw new IllegalArgumentException("Account not found: " + userId);
         }
 
+        deleteOutbox(userId);
+        eventPublisher.publishEvent(AccountStatusChangedEvent.active(userId, walletAddress, txHash));
+
         log.info("[BlockchainUpdater] Updated {} rows for userId={}", rows, userId);
     }
+
+    /**
+     * Apply many completed registrations in one short transaction
+     *
+     * Used by BlockchainUpdateBatcher: one commit and one connection
+     * checkout per flush instead of per registration. The updates are sent
+     * as a JDBC batch, the outbox entries are removed by one DELETE.
+     *
+     * @return number of updated rows per input, in order
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, timeout = 5)
+    public int[] updateBlockchainBatch(List<BlockchainUpdate> updates) {
+        if (updates.isEmpty()) {
+            return new int[0];
+        }
+
+        int[] rows = jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, update) -> {
+            ps.setString(1, update.walletAddress());
+            ps.setString(2, update.txHash());
+            ps.setString(3, update.userId());
+        })[0];
+
+        deleteOutbox(updates.stream().map(BlockchainUpdate::userId).toArray(String[]::new));
+
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] > 0) {
+                BlockchainUpdate update = updates.get(i);
+                eventPublisher.publishEvent(AccountStatusChangedEvent.active(
+                        update.userId(), update.walletAddress(), update.txHash()));
+            }
+        }
+
+        log.info("[BlockchainUpdater] Batch updated {} accounts", updates.size());
+        return rows;
+    }
+
+    /**
+     * Mark account as FAILED once its registration attempts are exhausted
+     * and drop the outbox entry in the same short transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, timeout = 5)
+    public void markFailed(String userId) {
+        int rows = accountRepository.markFailed(userId);
+        outboxRepository.deleteByUserId(userId);
+        if (rows > 0) {
+            eventPublisher.publishEvent(AccountStatusChangedEvent.failed(userId));
+        }
+
+        log.warn("[BlockchainUpdater] Marked {} rows FAILED for userId={}", rows, userId);
+    }
+
+    /**
+     * Remove the outbox entries and record PENDING -> ACTIVE time for
+     * each once the transaction commits
+     */
+    private void deleteOutbox(String... userIds) {
+        List<Timestamp> createdAt = jdbcTemplate.query(DELETE_OUTBOX_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", userIds)),
+                (rs, rowNum) -> rs.getTimestamp("created_at"));
+
+        Runnable record = () -> createdAt.forEach(created ->
+                registrationMetrics.recordEndToEnd(created.toLocalDateTime(), "active"));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record.run();
+            }
+        });
+    }
+
+    public record BlockchainUpdate(String userId, String walletAddress, String txHash) {}
 }
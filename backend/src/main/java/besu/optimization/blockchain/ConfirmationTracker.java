@@ -0,0 +1,249 @@
+package besu.optimization.blockchain;
+
+import besu.optimization.blockchain.BlockchainUpdater.BlockchainUpdate;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Confirmation Tracker (blockchain.client=native)
+ *
+ * Resolves submitted transactions from new blocks instead of one receipt
+ * poller per transaction (ethers' tx.wait() in the middleware):
+ * - Each poll reads eth_blockNumber once; for every new block one
+ *   eth_getBlockByNumber lists its transactions, and receipts are fetched
+ *   only for the hashes this node is waiting on (in JSON-RPC batches)
+ * - The confirmed registrations of a block go to TX 2 as one batch
+ *   (BlockchainUpdateBatcher.flush: one JDBC batch, per-row fallback)
+ * - Entries not mined within timeout-ms fail, so the registration is retried.
+ *   Only checked once caught up with the head (at most max-blocks-per-poll
+ *   blocks are read per poll), so an entry mined in a block not yet read
+ *   after an RPC outage is not retried as a second wallet
+ *
+ * At 678 TPS and 2s blocks that is ~1 block + ~1,356 receipt reads per
+ * block, instead of thousands of concurrent receipt polls.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfirmationTracker {
+
+    private final JsonRpcClient jsonRpcClient;
+    private final BlockchainUpdateBatcher updateBatcher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${blockchain.client:middleware}")
+    private String client = "middleware";
+
+    @Value("${blockchain.confirmations.poll-ms:500}")
+    private long pollMs = 500;
+
+    @Value("${blockchain.confirmations.timeout-ms:60000}")
+    private long timeoutMs = 60_000;
+
+    @Value("${blockchain.confirmations.max-blocks-per-poll:50}")
+    private int maxBlocksPerPoll = 50;
+
+    /**
+     * CONFIRMED: mined with status 1, TX 2 already written by the tracker.
+     * REVERTED: mined with status 0, nothing written.
+     */
+    public enum Status { CONFIRMED, REVERTED }
+
+    public record Confirmation(String txHash, Status status, long blockNumber) {}
+
+    private record Pending(BlockchainUpdate update, CompletableFuture<Confirmation> future, long trackedAtNanos) {}
+
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    // Only touched by the tracker thread
+    private long lastBlock = -1;
+
+    private Thread poller;
+    private volatile boolean running;
+
+    private DistributionSummary confirmedPerBlock;
+    private Timer confirmationLatency;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("blockchain.confirmations.pending", pending, Map::size)
+                .description("Submitted transactions waiting to be mined")
+                .register(meterRegistry);
+        confirmedPerBlock = DistributionSummary.builder("blockchain.confirmations.block.size")
+                .description("Tracked transactions resolved per block")
+                .register(meterRegistry);
+        confirmationLatency = Timer.builder("blockchain.confirmations.latency")
+                .description("Time from submission to inclusion in a block")
+                .register(meterRegistry);
+
+        if (!"native".equalsIgnoreCase(client)) {
+            return;
+        }
+        running = true;
+        poller = Thread.ofPlatform()
+                .name("confirmation-tracker")
+                .daemon(true)
+                .start(this::pollLoop);
+
+        log.info("ConfirmationTracker initialized: poll={}ms, timeout={}ms", pollMs, timeoutMs);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (poller == null) {
+            return;
+        }
+        running = false;
+        poller.interrupt();
+        poller.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Wait for txHash to be mined. Call before sending the transaction,
+     * so it cannot be mined in a block the tracker has already passed.
+     * On status 1 the tracker writes the given update as part of its block's TX 2.
+     */
+    public CompletableFuture<Confirmation> track(String txHash, BlockchainUpdate update) {
+        CompletableFuture<Confirmation> future = new CompletableFuture<>();
+        pending.put(txHash.toLowerCase(), new Pending(update, future, System.nanoTime()));
+        return future;
+    }
+
+    /**
+     * Stop waiting for a transaction that was never accepted by the node
+     */
+    public void untrack(String txHash) {
+        pending.remove(txHash.toLowerCase());
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                poll();
+                Thread.sleep(pollMs);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                // RPC unavailable: keep lastBlock and catch up on the next poll
+                log.warn("[confirmations] Poll failed: {}", e.getMessage());
+                sleepQuietly();
+            }
+        }
+    }
+
+    void poll() {
+        // Read the head before checking for pending entries: anything tracked
+        // after this read is sent after it, so it is mined in a later block
+        long head = Numeric.decodeQuantity(jsonRpcClient.call("eth_blockNumber").asText()).longValue();
+
+        if (pending.isEmpty()) {
+            lastBlock = head;
+            return;
+        }
+        if (lastBlock < 0) {
+            lastBlock = head - 1;
+        }
+
+        long to = Math.min(head, lastBlock + maxBlocksPerPoll);
+        for (long block = lastBlock + 1; block <= to; block++) {
+            processBlock(block);
+            lastBlock = block;
+        }
+
+        if (lastBlock == head) {
+            expire();
+        }
+    }
+
+    private void processBlock(long blockNumber) {
+        JsonNode block = jsonRpcClient.call("eth_getBlockByNumber",
+                Numeric.encodeQuantity(BigInteger.valueOf(blockNumber)), false);
+
+        // Request all receipts at once so they share JSON-RPC batches
+        Map<String, CompletableFuture<JsonNode>> receipts = new LinkedHashMap<>();
+        for (JsonNode tx : block.path("transactions")) {
+            String hash = tx.asText().toLowerCase();
+            if (pending.containsKey(hash)) {
+                receipts.put(hash, jsonRpcClient.callAsync("eth_getTransactionReceipt", hash));
+            }
+        }
+
+        List<BlockchainUpdate> updates = new ArrayList<>();
+        List<Runnable> completions = new ArrayList<>();
+
+        for (Map.Entry<String, CompletableFuture<JsonNode>> tracked : receipts.entrySet()) {
+            String hash = tracked.getKey();
+            Pending entry = pending.get(hash);
+            if (entry == null) {
+                // Untracked meanwhile
+                continue;
+            }
+
+            JsonNode receipt = tracked.getValue().join();
+            boolean success = "0x1".equals(receipt.path("status").asText());
+            if (success) {
+                updates.add(entry.update());
+            }
+            Confirmation confirmation = new Confirmation(hash, success ? Status.CONFIRMED : Status.REVERTED, blockNumber);
+            completions.add(() -> {
+                pending.remove(hash);
+                confirmationLatency.record(System.nanoTime() - entry.trackedAtNanos(), TimeUnit.NANOSECONDS);
+                entry.future().complete(confirmation);
+            });
+        }
+
+        if (completions.isEmpty()) {
+            return;
+        }
+
+        // TX 2 for the whole block before anyone is told it is done
+        updateBatcher.flush(updates);
+        confirmedPerBlock.record(completions.size());
+        completions.forEach(Runnable::run);
+
+        log.debug("[confirmations] Block {}: {} tracked, {} confirmed", blockNumber, completions.size(), updates.size());
+    }
+
+    private void expire() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        pending.forEach((hash, entry) -> {
+            if (entry.trackedAtNanos() < cutoff && pending.remove(hash, entry)) {
+                entry.future().completeExceptionally(
+                        new TimeoutException("Not mined after " + timeoutMs + "ms: " + hash));
+            }
+        });
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
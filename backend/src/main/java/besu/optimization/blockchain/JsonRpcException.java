@@ -0,0 +1,18 @@
+package besu.optimization.blockchain;
+
+import lombok.Getter;
+
+/**
+ * JSON-RPC error object returned by Besu (e.g. -32000 "Nonce too low").
+ * Transport failures surface as RestClientException instead.
+ */
+@Getter
+public class JsonRpcException extends RuntimeException {
+
+    private final int code;
+
+    public JsonRpcException(String method, int code, String message) {
+        super(method + " failed (" + code + "): " + message);
+        this.code = code;
+    }
+}
@@ -0,0 +1,253 @@
+package besu.optimization.blockchain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Middleware Circuit Breaker
+ *
+ * Fails registrations fast while the middleware (or Besu behind it) is
+ * failing or stalling, instead of letting every call wait out the 30s
+ * response timeout and back up the executor.
+ *
+ * - CLOSED: outcomes of the last window-size calls are kept; once at least
+ *   minimum-calls are recorded, a failure rate or slow-call rate at or above
+ *   its threshold opens the circuit
+ * - OPEN: calls are rejected for open-duration-ms; callers park the work
+ *   until retryAt()
+ * - HALF_OPEN: half-open-calls trial calls are let through; if their rates
+ *   stay below the thresholds the circuit closes, otherwise it opens again
+ *
+ * Failures are 5xx/429/IO errors/timeouts. 4xx responses are ignored.
+ * State is exported as middleware.circuit.state (0=closed, 1=open, 2=half-open).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MiddlewareCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+    private static final Duration HALF_OPEN_RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${middleware.circuit-breaker.window-size:100}")
+    private int windowSize = 100;
+
+    @Value("${middleware.circuit-breaker.minimum-calls:20}")
+    private int minimumCalls = 20;
+
+    @Value("${middleware.circuit-breaker.failure-rate-threshold:50}")
+    private double failureRateThreshold = 50;
+
+    @Value("${middleware.circuit-breaker.slow-call-duration-ms:12000}")
+    private long slowCallDurationMs = 12000;
+
+    @Value("${middleware.circuit-breaker.slow-call-rate-threshold:80}")
+    private double slowCallRateThreshold = 80;
+
+    @Value("${middleware.circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMs = 30000;
+
+    @Value("${middleware.circuit-breaker.half-open-calls:5}")
+    private int halfOpenCalls = 5;
+
+    private Counter rejectedCounter;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private byte[] window;
+    private int windowIndex;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private long openUntilMillis;
+    private int halfOpenPermits;
+    private int halfOpenResults;
+    private int halfOpenFailures;
+    private int halfOpenSlowCalls;
+
+    @PostConstruct
+    void init() {
+        window = new byte[windowSize];
+
+        Gauge.builder("middleware.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("Middleware circuit state (0=closed, 1=open, 2=half-open)")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("middleware.circuit.rejected")
+                .description("Middleware calls rejected while the circuit was open")
+                .register(meterRegistry);
+
+        log.info("MiddlewareCircuitBreaker initialized: window={}, failureRate={}%, slowCall={}ms@{}%, open={}ms",
+                windowSize, failureRateThreshold, slowCallDurationMs, slowCallRateThreshold, openDurationMs);
+    }
+
+    /**
+     * Ask to make a middleware call.
+     * Returns null when the circuit rejects it; otherwise the call must be
+     * completed with exactly one of success/failure/ignore (extra calls are no-ops).
+     */
+    public synchronized Call tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() < openUntilMillis) {
+                rejectedCounter.increment();
+                return null;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                rejectedCounter.increment();
+                return null;
+            }
+            halfOpenPermits--;
+        }
+        return new Call();
+    }
+
+    /**
+     * Whether a call would currently be let through (does not take a trial permit)
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> System.currentTimeMillis() >= openUntilMillis;
+            case HALF_OPEN -> halfOpenPermits > 0;
+        };
+    }
+
+    /**
+     * Earliest time rejected work is worth retrying
+     */
+    public synchronized Instant retryAt() {
+        if (state == State.OPEN) {
+            return Instant.ofEpochMilli(openUntilMillis);
+        }
+        return Instant.now().plus(HALF_OPEN_RETRY_DELAY);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0 : 100.0 * failures / recorded;
+    }
+
+    public synchronized double getSlowCallRate() {
+        return recorded == 0 ? 0 : 100.0 * slowCalls / recorded;
+    }
+
+    synchronized void onResult(long elapsedNanos, boolean failed) {
+        boolean slow = elapsedNanos >= Duration.ofMillis(slowCallDurationMs).toNanos();
+
+        switch (state) {
+            case CLOSED -> {
+                byte evicted = window[windowIndex];
+                if (recorded == windowSize) {
+                    if ((evicted & FAILED) != 0) failures--;
+                    if ((evicted & SLOW) != 0) slowCalls--;
+                } else {
+                    recorded++;
+                }
+                window[windowIndex] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+                windowIndex = (windowIndex + 1) % windowSize;
+                if (failed) failures++;
+                if (slow) slowCalls++;
+
+                if (recorded >= minimumCalls && exceedsThresholds(failures, slowCalls, recorded)) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            case HALF_OPEN -> {
+                halfOpenResults++;
+                if (failed) halfOpenFailures++;
+                if (slow) halfOpenSlowCalls++;
+
+                if (halfOpenResults >= halfOpenCalls) {
+                    transitionTo(exceedsThresholds(halfOpenFailures, halfOpenSlowCalls, halfOpenResults)
+                            ? State.OPEN : State.CLOSED);
+                }
+            }
+            case OPEN -> {
+                // Late result of a call started before the circuit opened
+            }
+        }
+    }
+
+    private synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenResults) {
+            // Give the trial slot back, the call said nothing about health
+            halfOpenPermits++;
+        }
+    }
+
+    private boolean exceedsThresholds(int failed, int slow, int total) {
+        return 100.0 * failed / total >= failureRateThreshold
+                || 100.0 * slow / total >= slowCallRateThreshold;
+    }
+
+    private void transitionTo(State next) {
+        log.warn("[CircuitBreaker] {} -> {} (failureRate={}%, slowCallRate={}%)",
+                state, next, Math.round(getFailureRate()), Math.round(getSlowCallRate()));
+        state = next;
+
+        switch (next) {
+            case OPEN -> openUntilMillis = System.currentTimeMillis() + openDurationMs;
+            case HALF_OPEN -> {
+                halfOpenPermits = halfOpenCalls;
+                halfOpenResults = 0;
+                halfOpenFailures = 0;
+                halfOpenSlowCalls = 0;
+            }
+            case CLOSED -> {
+                window = new byte[windowSize];
+                windowIndex = 0;
+                recorded = 0;
+                failures = 0;
+                slowCalls = 0;
+            }
+        }
+    }
+
+    public final class Call {
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Call() {
+        }
+
+        /** Middleware answered (2xx) */
+        public void success(long elapsedNanos) {
+            if (completed.compareAndSet(false, true)) {
+                onResult(elapsedNanos, false);
+            }
+        }
+
+        /** 5xx, 429, timeout or IO error */
+        public void failure(long elapsedNanos) {
+            if (completed.compareAndSet(false, true)) {
+                onResult(elapsedNanos, true);
+            }
+        }
+
+        /** Outcome says nothing about middleware health (e.g. 4xx) */
+        public void ignore() {
+            if (completed.compareAndSet(false, true)) {
+                onIgnored();
+            }
+        }
+    }
+}
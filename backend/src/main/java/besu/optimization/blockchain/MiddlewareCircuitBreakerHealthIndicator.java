@@ -0,0 +1,39 @@
+package besu.optimization.blockchain;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the middleware circuit under /actuator/health (middlewareCircuitBreaker).
+ *
+ * An open circuit is reported as DEGRADED rather than DOWN: account creation
+ * still succeeds (registrations wait in the outbox), so the instance should
+ * stay in the load balancer.
+ */
+@Component
+@RequiredArgsConstructor
+public class MiddlewareCircuitBreakerHealthIndicator implements HealthIndicator {
+
+    static final Status DEGRADED = new Status("DEGRADED");
+
+    private final MiddlewareCircuitBreaker circuitBreaker;
+
+    @Override
+    public Health health() {
+        MiddlewareCircuitBreaker.State state = circuitBreaker.getState();
+
+        Health.Builder builder = state == MiddlewareCircuitBreaker.State.CLOSED
+                ? Health.up()
+                : Health.status(DEGRADED);
+        builder.withDetail("state", state)
+                .withDetail("failureRate", circuitBreaker.getFailureRate())
+                .withDetail("slowCallRate", circuitBreaker.getSlowCallRate());
+        if (state != MiddlewareCircuitBreaker.State.CLOSED) {
+            builder.withDetail("retryAt", circuitBreaker.retryAt());
+        }
+        return builder.build();
+    }
+}
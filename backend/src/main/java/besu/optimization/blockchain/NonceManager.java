@@ -0,0 +1,171 @@
+package besu.optimization.blockchain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.web3j.utils.Numeric;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nonce Manager
+ *
+ * Hands out nonces for keys that send many transactions (the funder key in
+ * blockchain.native.funding=funder), so sends can be pipelined instead of
+ * waiting for each transaction to be mined before the next nonce is known.
+ *
+ * Per sender:
+ * - The first allocation reads eth_getTransactionCount(sender, "pending")
+ * - allocate() is lock-free: a released nonce (gap) if there is one,
+ *   otherwise AtomicLong.getAndIncrement()
+ * - A nonce that never reached the pool is released; the next allocation
+ *   reuses it, so later transactions are not stuck behind the gap
+ *
+ * Node rejections (see classify):
+ * - NONCE_TOO_LOW / REPLACEMENT_UNDERPRICED: the nonce is taken on chain or
+ *   in the pool, resync() moves the counter up to the node's pending count
+ * - NONCE_TOO_HIGH: a gap the pool will not wait for, reset() restarts from
+ *   the node's pending count
+ * - ALREADY_KNOWN: the same signed transaction is already in the pool
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NonceManager {
+
+    public enum Rejection { NONCE_TOO_LOW, NONCE_TOO_HIGH, REPLACEMENT_UNDERPRICED, ALREADY_KNOWN, OTHER }
+
+    private final JsonRpcClient jsonRpcClient;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Sender> senders = new ConcurrentHashMap<>();
+
+    private Counter resyncs;
+    private Counter resets;
+    private Counter gaps;
+
+    private static final class Sender {
+        final AtomicLong next;
+        final ConcurrentSkipListSet<Long> released = new ConcurrentSkipListSet<>();
+
+        Sender(long next) {
+            this.next = new AtomicLong(next);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        resyncs = Counter.builder("blockchain.nonce.resync")
+                .description("Nonce counters moved up to the node's pending count")
+                .register(meterRegistry);
+        resets = Counter.builder("blockchain.nonce.reset")
+                .description("Nonce counters restarted after a gap the pool would not wait for")
+                .register(meterRegistry);
+        gaps = Counter.builder("blockchain.nonce.released")
+                .description("Allocated nonces that never reached the pool and were handed out again")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Next nonce for sender. Every nonce returned must end up in the pool
+     * or be given back with release() / reconcile().
+     */
+    public long allocate(String sender) {
+        Sender state = sender(sender);
+        Long gap = state.released.pollFirst();
+        if (gap != null) {
+            return gap;
+        }
+        return state.next.getAndIncrement();
+    }
+
+    /**
+     * Give back a nonce whose transaction was rejected by the node
+     */
+    public void release(String sender, long nonce) {
+        Sender state = sender(sender);
+        // Most recent allocation: just step back; otherwise leave a gap to fill
+        if (!state.next.compareAndSet(nonce + 1, nonce)) {
+            state.released.add(nonce);
+            gaps.increment();
+        }
+    }
+
+    /**
+     * After a send whose outcome is unknown (timeout, connection reset):
+     * release the nonce if the node does not have the transaction.
+     */
+    public void reconcile(String sender, long nonce, String txHash) {
+        try {
+            if (jsonRpcClient.call("eth_getTransactionByHash", txHash).isNull()) {
+                log.info("[nonce] {} nonce {} not in the pool, releasing", sender, nonce);
+                release(sender, nonce);
+            }
+        } catch (RuntimeException e) {
+            // Still unknown; a duplicate is caught later as NONCE_TOO_LOW / REPLACEMENT_UNDERPRICED
+            log.warn("[nonce] Could not reconcile {} nonce {}: {}", sender, nonce, e.getMessage());
+        }
+    }
+
+    /**
+     * Move the counter up to the node's pending nonce (never down, so
+     * allocations in flight are not handed out twice).
+     */
+    public void resync(String sender) {
+        Sender state = sender(sender);
+        long pending = pendingNonce(sender);
+        long next = state.next.accumulateAndGet(pending, Math::max);
+        state.released.headSet(pending).clear();
+        resyncs.increment();
+        log.info("[nonce] {} resynced: pending={}, next={}", sender, pending, next);
+    }
+
+    /**
+     * Restart from the node's pending nonce, dropping everything allocated
+     * above it. Transactions in flight with those nonces come back as
+     * NONCE_TOO_LOW / REPLACEMENT_UNDERPRICED and are resent.
+     */
+    public void reset(String sender) {
+        Sender state = sender(sender);
+        long pending = pendingNonce(sender);
+        state.released.clear();
+        state.next.set(pending);
+        resets.increment();
+        log.warn("[nonce] {} reset to pending={}", sender, pending);
+    }
+
+    /**
+     * Map a JSON-RPC rejection of eth_sendRawTransaction (Besu and Geth wording)
+     */
+    public static Rejection classify(JsonRpcException e) {
+        String message = e.getMessage() == null ? "" : e.getMessage().toLowerCase();
+        if (message.contains("nonce too low") || message.contains("nonce_too_low")) {
+            return Rejection.NONCE_TOO_LOW;
+        }
+        if (message.contains("nonce is too distant") || message.contains("nonce too high")) {
+            return Rejection.NONCE_TOO_HIGH;
+        }
+        if (message.contains("replacement transaction underpriced")) {
+            return Rejection.REPLACEMENT_UNDERPRICED;
+        }
+        if (message.contains("known transaction") || message.contains("already known")) {
+            return Rejection.ALREADY_KNOWN;
+        }
+        return Rejection.OTHER;
+    }
+
+    private Sender sender(String sender) {
+        return senders.computeIfAbsent(sender.toLowerCase(), address -> new Sender(pendingNonce(address)));
+    }
+
+    private long pendingNonce(String sender) {
+        return Numeric.decodeQuantity(
+                jsonRpcClient.call("eth_getTransactionCount", sender, "pending").asText()).longValue();
+    }
+}
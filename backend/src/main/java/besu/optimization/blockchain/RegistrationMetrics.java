@@ -0,0 +1,100 @@
+package besu.optimization.blockchain;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registration Metrics
+ *
+ * One timer per phase of the Transaction Isolation Pattern, so a slow
+ * registration can be attributed to a phase:
+ *
+ *   registration.tx1           POST /api/accounts insert + commit      outcome
+ *   registration.queue.dwell   due in the outbox -> claimed             queue=outbox
+ *                              handed to AsyncConfig -> running         queue=executor
+ *   registration.call          one middleware / native attempt          client, outcome
+ *   registration.retry.delay   backoff scheduled -> next attempt runs
+ *   registration.attempts      attempts per registration (summary)      result
+ *   blockchain.tx2.flush       TX 2 (BlockchainUpdateBatcher)           mode
+ *   registration.end.to.end    TX 1 commit -> ACTIVE / FAILED           outcome
+ *
+ * Percentile histograms are enabled for these in application.yml
+ * (management.metrics.distribution), for /actuator/prometheus.
+ */
+@Component
+@RequiredArgsConstructor
+public class RegistrationMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public void recordTx1(long elapsedNanos, String outcome) {
+        Timer.builder("registration.tx1")
+                .description("Account insert and outbox entry (TX 1), including commit")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time a due outbox entry waited to be claimed (dueAt -> now).
+     * dueAt is RegistrationOutbox.dueAt: availableAt from before the lease.
+     */
+    public void recordOutboxDwell(LocalDateTime dueAt) {
+        Duration dwell = Duration.between(dueAt, LocalDateTime.now());
+        dwell(dwell.isNegative() ? Duration.ZERO : dwell, "outbox");
+    }
+
+    public void recordExecutorDwell(long elapsedNanos) {
+        dwell(Duration.ofNanos(elapsedNanos), "executor");
+    }
+
+    public void recordCall(String client, String outcome, long elapsedNanos) {
+        Timer.builder("registration.call")
+                .description("One registration attempt (middleware call, or native send + confirmation)")
+                .tag("client", client)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRetryDelay(long elapsedNanos) {
+        Timer.builder("registration.retry.delay")
+                .description("Backoff between attempts, including timer and executor lag")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAttempts(int attempts, String result) {
+        DistributionSummary.builder("registration.attempts")
+                .description("Attempts per registration")
+                .tag("result", result)
+                .register(meterRegistry)
+                .record(attempts);
+    }
+
+    /**
+     * Account created (outbox entry written in TX 1) -> final status
+     */
+    public void recordEndToEnd(LocalDateTime createdAt, String outcome) {
+        Timer.builder("registration.end.to.end")
+                .description("Time from TX 1 to ACTIVE or FAILED")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(Duration.between(createdAt, LocalDateTime.now()));
+    }
+
+    private void dwell(Duration dwell, String queue) {
+        Timer.builder("registration.queue.dwell")
+                .description("Time a due registration waited before it ran")
+                .tag("queue", queue)
+                .register(meterRegistry)
+                .record(dwell);
+    }
+}
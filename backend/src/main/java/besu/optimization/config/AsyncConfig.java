@@ -1,15 +1,29 @@
 package besu.optimization.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Async Configuration for Background Task Execution
@@ -23,15 +37,74 @@ import java.util.concurrent.ThreadPoolExecutor;
  * - Queue capacity of 4000 for burst handling
  * - CallerRunsPolicy for natural backpressure (no request loss)
  * - Tasks are executed AFTER transaction commits
+ * - Delayed tasks (retries) wait on a timer thread, not on a worker, and
+ *   are never run on it: a saturated executor puts them back on the timer
+ *
+ * async.mode=virtual replaces the pool with one virtual thread per task:
+ * - A semaphore bulkhead (max-concurrency) bounds tasks running at once
+ * - A pending counter (max-pending) bounds accepted tasks, running or waiting
+ * - Thousands of 4-10s finality waits cost no platform threads
+ * Beyond max-pending the caller runs the task, as with CallerRunsPolicy.
+ *
+ * async.rejection-policy=abort throws RejectedExecutionException instead of
+ * running the task on the caller, in both modes. Callers then keep the work
+ * durable (the outbox row is released) instead of blocking their own thread.
+ *
+ * Saturation is exported as async.executor.* (tag mode): active, queued,
+ * remaining capacity, completed, rejected and caller-runs counts, and the
+ * dwell time from submit to start (async.executor.dwell). The same
+ * figures are served by /actuator/executor (AsyncExecutorEndpoint).
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class AsyncConfig {
 
+    private final MeterRegistry meterRegistry;
+
+    @Value("${async.mode:pool}")
+    private String mode = "pool";
+
+    @Value("${async.virtual.max-concurrency:2000}")
+    private int maxConcurrency = 2000;
+
+    @Value("${async.virtual.max-pending:20000}")
+    private int maxPending = 20000;
+
+    @Value("${async.rejection-policy:caller-runs}")
+    private String rejectionPolicy = "caller-runs";
+
+    private static final long REJECTED_RETRY_DELAY_MS = 100;
+
     private ThreadPoolTaskExecutor executor;
 
+    // async.mode=virtual
+    private ExecutorService virtualExecutor;
+    private Semaphore bulkhead;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+
+    // Both modes
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private Timer dwell;
+
+    // Holds delayed tasks until they are due, then hands them to the executor
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            r -> Thread.ofPlatform().name("async-timer").daemon().unstarted(r));
+
     @PostConstruct
     void init() {
+        if ("virtual".equalsIgnoreCase(mode)) {
+            virtualExecutor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("blockchain-vt-", 0).factory());
+            bulkhead = new Semaphore(maxConcurrency);
+            registerMetrics();
+            log.info("AsyncConfig initialized: mode=virtual, maxConcurrency={}, maxPending={}",
+                    maxConcurrency, maxPending);
+            return;
+        }
+
         executor = new ThreadPoolTaskExecutor();
         // Paper reference (Section 3.2):
         // "A ThreadPoolExecutor with 64 worker threads and a bounded queue of 4,000"
@@ -42,18 +115,32 @@ public class AsyncConfig {
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
 
-        // CallerRunsPolicy: When pool is saturated, calling thread executes the task
-        // This provides natural backpressure without request loss
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Saturated: always reject; submit() applies rejection-policy (throw or run on the caller)
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            throw new RejectedExecutionException("Executor saturated, queue=" + pool.getQueue().size());
+        });
 
         executor.initialize();
-        log.info("AsyncConfig initialized: core={}, max={}, queue={}",
-                executor.getCorePoolSize(), executor.getMaxPoolSize(), executor.getQueueCapacity());
+        registerMetrics();
+        log.info("AsyncConfig initialized: core={}, max={}, queue={}, rejection={}",
+                executor.getCorePoolSize(), executor.getMaxPoolSize(), executor.getQueueCapacity(),
+                rejectionPolicy);
     }
 
     @PreDestroy
     void shutdown() {
         log.info("Shutting down AsyncConfig executor");
+        // Pending retries are dropped; their outbox leases expire and they are re-dispatched
+        timer.shutdownNow();
+        if (virtualExecutor != null) {
+            virtualExecutor.shutdown();
+            try {
+                virtualExecutor.awaitTermination(60, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
         executor.shutdown();
     }
 
@@ -84,33 +171,200 @@ public class AsyncConfig {
 
     /**
      * Run task immediately (ignoring transaction state)
+     *
+     * @throws RejectedExecutionException when saturated and the rejection policy is abort
      */
     public void runAsync(Runnable task) {
         submit(task);
     }
 
+    /**
+     * Run task on the executor after delayMs, without occupying a worker while waiting.
+     *
+     * Used for retry backoff. If the executor is saturated when the delay
+     * expires, the task goes back on the timer until a worker accepts it,
+     * whatever the rejection policy: running it on the single timer thread
+     * would hold back every retry due after it.
+     *
+     * @throws RejectedExecutionException after shutdown
+     */
+    public void runLater(Runnable task, long delayMs) {
+        timer.schedule(() -> {
+            try {
+                submit(task, false);
+            } catch (RejectedExecutionException e) {
+                if (!timer.isShutdown()) {
+                    runLater(task, REJECTED_RETRY_DELAY_MS);
+                }
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
     private void submit(Runnable task) {
+        submit(task, !isAbortPolicy());
+    }
+
+    /**
+     * callerMayRun: when saturated, run the task on the calling thread
+     * (caller-runs) instead of throwing RejectedExecutionException
+     */
+    private void submit(Runnable task, boolean callerMayRun) {
+        long submitted = System.nanoTime();
+        if (virtualExecutor != null) {
+            submitVirtual(task, submitted, callerMayRun);
+            return;
+        }
         try {
-            executor.execute(task);
+            executor.execute(() -> {
+                dwell.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                task.run();
+            });
         } catch (RejectedExecutionException e) {
-            // This shouldn't happen with CallerRunsPolicy, but just in case
-            log.warn("Task rejected, running in caller thread. active={}, queue={}",
-                    executor.getActiveCount(),
-                    executor.getThreadPoolExecutor().getQueue().size());
+            if (!callerMayRun) {
+                rejected.increment();
+                throw e;
+            }
+            if (executor.getThreadPoolExecutor().isShutdown()) {
+                // Dropped, as CallerRunsPolicy does after shutdown
+                return;
+            }
+            callerRuns.increment();
             task.run();
         }
     }
 
+    private void submitVirtual(Runnable task, long submitted, boolean callerMayRun) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            if (!callerMayRun) {
+                rejected.increment();
+                throw new RejectedExecutionException("Virtual executor saturated, pending=" + maxPending);
+            }
+            log.warn("Task rejected, running in caller thread. pending={}", maxPending);
+            callerRuns.increment();
+            task.run();
+            return;
+        }
+
+        try {
+            virtualExecutor.execute(() -> {
+                try {
+                    bulkhead.acquire();
+                } catch (InterruptedException e) {
+                    pending.decrementAndGet();
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                // Waiting for a bulkhead permit is this mode's queue
+                dwell.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    bulkhead.release();
+                    pending.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Executor is shutting down
+            pending.decrementAndGet();
+            task.run();
+        }
+    }
+
+    private boolean isAbortPolicy() {
+        return "abort".equalsIgnoreCase(rejectionPolicy);
+    }
+
+    private void registerMetrics() {
+        String modeTag = getMode();
+        Gauge.builder("async.executor.active", this, config -> config.getStats().activeThreads())
+                .description("Tasks running")
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+        Gauge.builder("async.executor.queued", this, config -> config.getStats().queueSize())
+                .description("Tasks accepted and waiting for a worker / bulkhead permit")
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+        Gauge.builder("async.executor.remaining.capacity", this, AsyncConfig::remainingCapacity)
+                .description("Tasks the executor can still accept before rejecting / running in the caller")
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+        FunctionCounter.builder("async.executor.completed", this, config -> config.getStats().completedTasks())
+                .description("Tasks completed")
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+        FunctionCounter.builder("async.executor.rejected", rejected, LongAdder::sum)
+                .description("Tasks rejected (rejection-policy=abort, or a due retry put back on the timer)")
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+        FunctionCounter.builder("async.executor.caller.runs", callerRuns, LongAdder::sum)
+                .description("Tasks run on the submitting thread because the executor was saturated")
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+        dwell = Timer.builder("async.executor.dwell")
+                .description("Time from submit to the task starting")
+                .tag("mode", modeTag)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * "pool" or "virtual"
+     */
+    public String getMode() {
+        return virtualExecutor != null ? "virtual" : "pool";
+    }
+
+    /**
+     * Submit -> start of every task run on the executor
+     */
+    Timer dwellTimer() {
+        return dwell;
+    }
+
+    /**
+     * Tasks accepted at most: workers + queue, or max-pending
+     */
+    public int getCapacity() {
+        if (virtualExecutor != null) {
+            return maxPending;
+        }
+        return executor.getMaxPoolSize() + executor.getQueueCapacity();
+    }
+
+    /**
+     * Number of tasks the executor can still accept without
+     * falling back to the caller thread.
+     * Used by OutboxDispatcher to size its claims.
+     */
+    public int remainingCapacity() {
+        if (virtualExecutor != null) {
+            return Math.max(0, maxPending - pending.get());
+        }
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        int idleWorkers = Math.max(0, pool.getMaximumPoolSize() - pool.getActiveCount());
+        return pool.getQueue().remainingCapacity() + idleWorkers;
+    }
+
     /**
      * Get executor stats for monitoring
      */
     public ExecutorStats getStats() {
+        if (virtualExecutor != null) {
+            int running = maxConcurrency - bulkhead.availablePermits();
+            return new ExecutorStats(running, Math.max(0, pending.get() - running), completed.get(),
+                    rejected.sum(), callerRuns.sum());
+        }
         return new ExecutorStats(
                 executor.getActiveCount(),
                 executor.getThreadPoolExecutor().getQueue().size(),
-                executor.getThreadPoolExecutor().getCompletedTaskCount()
+                executor.getThreadPoolExecutor().getCompletedTaskCount(),
+                rejected.sum(),
+                callerRuns.sum()
         );
     }
 
-    public record ExecutorStats(int activeThreads, int queueSize, long completedTasks) {}
+    public record ExecutorStats(int activeThreads, int queueSize, long completedTasks,
+                                long rejectedTasks, long callerRunsTasks) {}
 }
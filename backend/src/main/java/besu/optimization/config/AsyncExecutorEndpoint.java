@@ -0,0 +1,52 @@
+package besu.optimization.config;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves AsyncConfig saturation under /actuator/executor.
+ *
+ * The async.executor.* meters carry the same figures over time; this is the
+ * point-in-time view for an operator checking one instance during a load
+ * test, without a Prometheus query:
+ * - saturation: accepted tasks / capacity (1.0 = the next task is rejected
+ *   or run by the caller)
+ * - dwell: submit -> start since startup
+ */
+@Component
+@Endpoint(id = "executor")
+@RequiredArgsConstructor
+public class AsyncExecutorEndpoint {
+
+    private final AsyncConfig asyncConfig;
+
+    @ReadOperation
+    public ExecutorReport executor() {
+        AsyncConfig.ExecutorStats stats = asyncConfig.getStats();
+        int capacity = asyncConfig.getCapacity();
+        int remaining = asyncConfig.remainingCapacity();
+        Timer dwell = asyncConfig.dwellTimer();
+
+        return new ExecutorReport(
+                asyncConfig.getMode(),
+                stats,
+                capacity,
+                remaining,
+                capacity == 0 ? 0 : (double) (capacity - remaining) / capacity,
+                new Dwell(dwell.count(), dwell.mean(TimeUnit.MILLISECONDS), dwell.max(TimeUnit.MILLISECONDS))
+        );
+    }
+
+    public record ExecutorReport(String mode, AsyncConfig.ExecutorStats stats, int capacity,
+                                 int remainingCapacity, double saturation, Dwell dwell) {}
+
+    /**
+     * max is the largest dwell in Micrometer's decaying window (~2 minutes)
+     */
+    public record Dwell(long count, double meanMs, double maxMs) {}
+}
@@ -34,6 +34,9 @@ public class RestClientConfig {
     @Value("${middleware.base-url:http://localhost:3000}")
     private String middlewareBaseUrl;
 
+    @Value("${blockchain.rpc-url:http://localhost:8545}")
+    private String besuRpcUrl;
+
     @Bean
     public CloseableHttpClient httpClient() {
         var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
@@ -73,4 +76,18 @@ public class RestClientConfig {
                 .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
                 .build();
     }
+
+    /**
+     * RestClient for Besu JSON-RPC (blockchain.client=native)
+     * Shares the connection pool with the middleware client
+     */
+    @Bean
+    public RestClient besuRestClient(HttpComponentsClientHttpRequestFactory requestFactory) {
+        return RestClient.builder()
+                .baseUrl(besuRpcUrl)
+                .requestFactory(requestFactory)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
 }
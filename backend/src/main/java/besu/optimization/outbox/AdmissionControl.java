@@ -0,0 +1,175 @@
+package besu.optimization.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission Control for new registrations
+ *
+ * Sheds account creation with 429 + Retry-After once the registration
+ * backlog exceeds what the blockchain side can work off, so POST latency
+ * stays flat and the backlog stays bounded under overload.
+ *
+ * - The backlog is the outbox row count: registrations queued in memory,
+ *   in flight and parked/rescheduled are all still in the outbox
+ * - Counted every refresh-interval-ms (all nodes share it), plus the
+ *   creates this node admitted since, so a burst cannot overshoot the limit
+ * - Shedding starts at max-backlog and stops below resume-ratio x max-backlog
+ * - Retry-After is the time to drain back to the resume level at the
+ *   observed drain rate, between 1s and max-retry-after-seconds
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdmissionControl {
+
+    private static final double DRAIN_RATE_SMOOTHING = 0.3;
+
+    private final RegistrationOutboxRepository outboxRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${accounts.admission.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${accounts.admission.max-backlog:50000}")
+    private long maxBacklog = 50000;
+
+    @Value("${accounts.admission.resume-ratio:0.8}")
+    private double resumeRatio = 0.8;
+
+    @Value("${accounts.admission.default-retry-after-seconds:5}")
+    private long defaultRetryAfterSeconds = 5;
+
+    @Value("${accounts.admission.max-retry-after-seconds:60}")
+    private long maxRetryAfterSeconds = 60;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong admittedSinceRefresh = new AtomicLong();
+    private volatile boolean shedding;
+
+    // Only touched by refresh()
+    private long lastCount = -1;
+    private long lastRefreshNanos;
+    private volatile double drainPerSecond;
+
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("accounts.admission.backlog", backlog, AtomicLong::get)
+                .description("Registration backlog (outbox rows) seen by admission control")
+                .register(meterRegistry);
+        Gauge.builder("accounts.admission.shedding", this, control -> control.isShedding() ? 1 : 0)
+                .description("1 while new registrations are rejected with 429")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("accounts.admission.rejected")
+                .description("Account creations rejected by admission control")
+                .register(meterRegistry);
+
+        log.info("AdmissionControl initialized: enabled={}, maxBacklog={}, resumeRatio={}",
+                enabled, maxBacklog, resumeRatio);
+    }
+
+    @Scheduled(fixedDelayString = "${accounts.admission.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        long admitted = admittedSinceRefresh.getAndSet(0);
+        long count;
+        try {
+            count = outboxRepository.count();
+        } catch (Exception e) {
+            // Keep the last estimate; local admissions are still counted
+            admittedSinceRefresh.addAndGet(admitted);
+            log.warn("[Admission] Backlog count failed: {}", e.getMessage());
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (lastCount >= 0) {
+            double seconds = (now - lastRefreshNanos) / 1e9;
+            // Rows gone since the last count; other nodes' inserts make this an underestimate
+            double drained = Math.max(0, lastCount + admitted - count);
+            double rate = drained / seconds;
+            drainPerSecond = drainPerSecond == 0 ? rate : drainPerSecond + DRAIN_RATE_SMOOTHING * (rate - drainPerSecond);
+        }
+        lastCount = count;
+        lastRefreshNanos = now;
+
+        backlog.set(count + admittedSinceRefresh.get());
+        updateShedding(backlog.get());
+    }
+
+    /**
+     * Admit one account creation
+     *
+     * @throws OverloadedException while shedding
+     */
+    public void admit() {
+        if (!tryAdmit(1)) {
+            throw new OverloadedException(backlog.get(), retryAfterSeconds());
+        }
+    }
+
+    /**
+     * Admit n account creations, or none of them
+     */
+    public boolean tryAdmit(int n) {
+        if (!enabled) {
+            return true;
+        }
+        if (shedding) {
+            rejectedCounter.increment(n);
+            return false;
+        }
+        admittedSinceRefresh.addAndGet(n);
+        updateShedding(backlog.addAndGet(n));
+        return true;
+    }
+
+    /**
+     * Fail before starting work that would only be shed (e.g. a bulk stream)
+     *
+     * @throws OverloadedException while shedding
+     */
+    public void checkAdmission() {
+        if (enabled && shedding) {
+            rejectedCounter.increment();
+            throw new OverloadedException(backlog.get(), retryAfterSeconds());
+        }
+    }
+
+    public boolean isShedding() {
+        return shedding;
+    }
+
+    long retryAfterSeconds() {
+        double rate = drainPerSecond;
+        if (rate <= 0) {
+            return defaultRetryAfterSeconds;
+        }
+        double excess = backlog.get() - maxBacklog * resumeRatio;
+        return Math.min(maxRetryAfterSeconds, Math.max(1, (long) Math.ceil(excess / rate)));
+    }
+
+    private void updateShedding(long current) {
+        if (!shedding && current >= maxBacklog) {
+            shedding = true;
+            log.warn("[Admission] Backlog {} reached {}, shedding new registrations", current, maxBacklog);
+        } else if (shedding && current < maxBacklog * resumeRatio) {
+            shedding = false;
+            log.info("[Admission] Backlog {} drained, accepting registrations again", current);
+        }
+    }
+}
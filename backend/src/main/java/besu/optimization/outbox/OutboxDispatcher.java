@@ -0,0 +1,154 @@
+package besu.optimization.outbox;
+
+import besu.optimization.blockchain.BlockchainService;
+import besu.optimization.blockchain.BlockchainService.RegistrationResult;
+import besu.optimization.blockchain.MiddlewareCircuitBreaker;
+import besu.optimization.blockchain.BlockchainUpdater;
+import besu.optimization.blockchain.RegistrationMetrics;
+import besu.optimization.config.AsyncConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Outbox Dispatcher
+ *
+ * Polls the registration outbox and feeds claimed entries to
+ * BlockchainService on the AsyncConfig executor.
+ *
+ * - Only claims as many entries as the executor can accept, so the
+ *   backlog lives in Postgres instead of the in-memory queue
+ * - Successful registrations are removed from the outbox by TX 2
+ *   (BlockchainUpdater), failed ones are rescheduled with backoff
+ * - After max attempts the account is marked FAILED
+ * - While the middleware circuit is open nothing is claimed, and entries
+ *   already dispatched are parked until it may close, without using an attempt
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxDispatcher {
+
+    private final OutboxService outboxService;
+    private final BlockchainService blockchainService;
+    private final BlockchainUpdater blockchainUpdater;
+    private final AsyncConfig asyncConfig;
+    private final MiddlewareCircuitBreaker circuitBreaker;
+    private final RegistrationMetrics registrationMetrics;
+
+    @Value("${outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${outbox.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:100}")
+    public void poll() {
+        if (!circuitBreaker.isCallPermitted()) {
+            return;
+        }
+
+        int capacity = Math.min(batchSize, asyncConfig.remainingCapacity());
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<RegistrationOutbox> claimed;
+        try {
+            claimed = outboxService.claimBatch(capacity);
+        } catch (Exception e) {
+            log.warn("[Outbox] Claim failed: {}", e.getMessage());
+            return;
+        }
+
+        for (int i = 0; i < claimed.size(); i++) {
+            RegistrationOutbox entry = claimed.get(i);
+            // availableAt is the lease expiry by now; dueAt is when it was claimable
+            registrationMetrics.recordOutboxDwell(entry.getDueAt());
+            long submitted = System.nanoTime();
+            try {
+                asyncConfig.runAsync(() -> {
+                    registrationMetrics.recordExecutorDwell(System.nanoTime() - submitted);
+                    dispatch(entry);
+                });
+            } catch (RejectedExecutionException e) {
+                // async.rejection-policy=abort: hand the rest back instead of running it here
+                log.warn("[Outbox] Executor saturated, releasing {} claimed entries", claimed.size() - i);
+                claimed.subList(i, claimed.size()).forEach(this::release);
+                return;
+            }
+        }
+    }
+
+    void dispatch(RegistrationOutbox entry) {
+        String userId = entry.getUserId();
+        log.info("[bg:register] Starting blockchain registration for {}, attempt={}",
+                userId, entry.getAttempts());
+
+        CompletableFuture<RegistrationResult> registration;
+        try {
+            // This call takes 4-10 seconds but doesn't hold a DB connection;
+            // retry backoff inside it doesn't hold a worker either
+            registration = blockchainService.registerAccountAsync(userId, entry.getUserName());
+        } catch (Exception e) {
+            registration = CompletableFuture.failedFuture(e);
+        }
+
+        registration.whenComplete((result, error) -> {
+            if (error != null) {
+                log.warn("[bg:register] Failed for {}: {}", userId, error.getMessage());
+            }
+            if (result == RegistrationResult.DEFERRED) {
+                park(entry);
+            } else if (result != RegistrationResult.REGISTERED) {
+                handleFailure(entry);
+            }
+        });
+    }
+
+    private void release(RegistrationOutbox entry) {
+        try {
+            outboxService.defer(entry.getId(), LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("[Outbox] Could not release {}: {}", entry.getUserId(), e.getMessage());
+        }
+    }
+
+    private void park(RegistrationOutbox entry) {
+        try {
+            LocalDateTime retryAt = LocalDateTime.ofInstant(circuitBreaker.retryAt(), ZoneId.systemDefault());
+            outboxService.defer(entry.getId(), retryAt);
+        } catch (Exception e) {
+            log.warn("[bg:register] Could not park {}: {}", entry.getUserId(), e.getMessage());
+        }
+    }
+
+    private void handleFailure(RegistrationOutbox entry) {
+        try {
+            if (entry.getAttempts() >= maxAttempts) {
+                log.warn("[bg:register] Giving up on {} after {} attempts", entry.getUserId(), entry.getAttempts());
+                blockchainUpdater.markFailed(entry.getUserId());
+                registrationMetrics.recordEndToEnd(entry.getCreatedAt(), "failed");
+                return;
+            }
+
+            // Exponential backoff between dispatches: 30s, 60s, 120s, ...
+            long delaySeconds = retryDelaySeconds << Math.min(entry.getAttempts() - 1, 10);
+            outboxService.reschedule(entry.getId(), LocalDateTime.now().plusSeconds(delaySeconds));
+        } catch (Exception e) {
+            // The lease expires on its own, so the entry is retried anyway
+            log.warn("[bg:register] Could not reschedule {}: {}", entry.getUserId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package besu.optimization.outbox;
+
+import besu.optimization.account.Account;
+import besu.optimization.account.AccountRepository;
+import besu.optimization.account.AccountStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outbox Service
+ *
+ * Short transactions around the registration outbox.
+ * Claiming is its own transaction: the row locks are held only for the
+ * duration of the SELECT ... FOR UPDATE SKIP LOCKED plus the lease update,
+ * never during the 4-10s blockchain call.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final RegistrationOutboxRepository outboxRepository;
+    private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Session-level advisory lock key shared by all nodes running PendingReconciler
+    static final long RECONCILER_LOCK_KEY = 0x6F7574626F78L;
+
+    @Value("${outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    /**
+     * Claim up to {@code limit} due entries and lease them to this node
+     */
+    @Transactional(timeout = 5)
+    public List<RegistrationOutbox> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RegistrationOutbox> batch = outboxRepository.findClaimable(now, limit);
+
+        LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+        batch.forEach(entry -> entry.lease(leaseUntil));
+
+        if (!batch.isEmpty()) {
+            log.debug("[Outbox] Claimed {} entries, lease until {}", batch.size(), leaseUntil);
+        }
+        return batch;
+    }
+
+    /**
+     * Make a claimed entry available again at the given time
+     */
+    @Transactional(timeout = 5)
+    public void reschedule(Long id, LocalDateTime availableAt) {
+        outboxRepository.reschedule(id, availableAt);
+    }
+
+    /**
+     * Make a claimed entry available again at the given time and give back
+     * the attempt taken by the claim (the registration was never tried)
+     */
+    @Transactional(timeout = 5)
+    public void defer(Long id, LocalDateTime availableAt) {
+        outboxRepository.defer(id, availableAt);
+    }
+
+    /**
+     * Run a whole PendingReconciler pass while holding the reconciler lock,
+     * so only one node scans at a time.
+     *
+     * The lock is a session-level pg_try_advisory_lock on one connection
+     * kept for the run (idle while the pages run in their own transactions),
+     * released with pg_advisory_unlock afterwards, or by Postgres if the
+     * node dies.
+     *
+     * @return false, without running, if another node holds the lock
+     */
+    public boolean runWithReconcilerLock(Runnable run) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(?)")) {
+                return false;
+            }
+            try {
+                run.run();
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(?)");
+            }
+            return true;
+        }));
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, RECONCILER_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * One PendingReconciler page, as one short transaction:
+     * abandoned PENDING accounts (no outbox entry) after {@code afterId} get
+     * a new outbox entry, or are marked FAILED if created before failBefore.
+     * Called inside runWithReconcilerLock.
+     */
+    @Transactional(timeout = 10)
+    public ReconcileResult reconcileAbandoned(long afterId, LocalDateTime staleBefore,
+                                              LocalDateTime failBefore, int limit) {
+        List<Account> page = accountRepository.findAbandonedPending(afterId, staleBefore, limit);
+        if (page.isEmpty()) {
+            return new ReconcileResult(afterId, 0, 0, List.of());
+        }
+
+        List<Long> resume = new ArrayList<>();
+        List<Long> expire = new ArrayList<>();
+        for (Account account : page) {
+            (account.getCreatedAt().isBefore(failBefore) ? expire : resume).add(account.getId());
+        }
+
+        int requeued = resume.isEmpty() ? 0 : outboxRepository.requeue(resume).size();
+
+        List<LocalDateTime> failedCreatedAt = new ArrayList<>();
+        if (!expire.isEmpty()) {
+            Set<String> failed = new HashSet<>(accountRepository.markFailedByIds(expire));
+            for (Account account : page) {
+                if (failed.contains(account.getUserId())) {
+                    eventPublisher.publishEvent(AccountStatusChangedEvent.failed(account.getUserId()));
+                    failedCreatedAt.add(account.getCreatedAt());
+                }
+            }
+        }
+
+        return new ReconcileResult(page.get(page.size() - 1).getId(), page.size(), requeued, failedCreatedAt);
+    }
+
+    /**
+     * @param lastId          keyset cursor for the next page
+     * @param failedCreatedAt TX 1 time of each account marked FAILED
+     */
+    public record ReconcileResult(long lastId, int scanned, int requeued, List<LocalDateTime> failedCreatedAt) {}
+}
@@ -0,0 +1,18 @@
+package besu.optimization.outbox;
+
+import lombok.Getter;
+
+/**
+ * Thrown when new registrations are shed because the backlog is full.
+ * Mapped to 429 Too Many Requests with a Retry-After header.
+ */
+@Getter
+public class OverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OverloadedException(long backlog, long retryAfterSeconds) {
+        super("Too many pending registrations (" + backlog + "), retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,128 @@
+package besu.optimization.outbox;
+
+import besu.optimization.blockchain.RegistrationMetrics;
+import besu.optimization.outbox.OutboxService.ReconcileResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending Reconciler
+ *
+ * Finds accounts left PENDING with no outbox entry (dropped before the
+ * outbox existed, restored from a backup, or removed from the outbox by
+ * hand) which OutboxDispatcher will never pick up.
+ *
+ * Every interval-ms, in keyset-paged batches of batch-size:
+ * - Older than stale-after-seconds: a new outbox entry is created, and the
+ *   dispatcher registers the account as usual
+ * - Older than fail-after-hours: the account is marked FAILED instead
+ * - At most max-per-run accounts per run, so a large backlog is fed to the
+ *   dispatcher gradually instead of all at once
+ *
+ * The whole run holds a Postgres session-level advisory lock
+ * (OutboxService.runWithReconcilerLock); when another node holds it, this
+ * node skips the run, so only one node scans at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingReconciler {
+
+    private final OutboxService outboxService;
+    private final RegistrationMetrics registrationMetrics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${outbox.reconciler.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${outbox.reconciler.stale-after-seconds:600}")
+    private long staleAfterSeconds = 600;
+
+    @Value("${outbox.reconciler.fail-after-hours:24}")
+    private long failAfterHours = 24;
+
+    @Value("${outbox.reconciler.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${outbox.reconciler.max-per-run:5000}")
+    private int maxPerRun = 5000;
+
+    private Counter requeued;
+    private Counter failed;
+
+    @PostConstruct
+    void init() {
+        requeued = Counter.builder("outbox.reconciler.requeued")
+                .description("Abandoned PENDING accounts given a new outbox entry")
+                .register(meterRegistry);
+        failed = Counter.builder("outbox.reconciler.failed")
+                .description("Abandoned PENDING accounts marked FAILED")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.reconciler.interval-ms:60000}",
+               initialDelayString = "${outbox.reconciler.initial-delay-ms:30000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+
+        boolean ran;
+        try {
+            ran = outboxService.runWithReconcilerLock(this::reconcilePages);
+        } catch (Exception e) {
+            log.warn("[reconciler] Run failed: {}", e.getMessage());
+            return;
+        }
+        if (!ran) {
+            log.debug("[reconciler] Another node holds the lock, skipping");
+        }
+    }
+
+    private void reconcilePages() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minusSeconds(staleAfterSeconds);
+        LocalDateTime failBefore = now.minusHours(failAfterHours);
+
+        long afterId = 0;
+        int scanned = 0;
+        int requeuedTotal = 0;
+        int failedTotal = 0;
+        while (scanned < maxPerRun) {
+            int limit = Math.min(batchSize, maxPerRun - scanned);
+
+            ReconcileResult result;
+            try {
+                result = outboxService.reconcileAbandoned(afterId, staleBefore, failBefore, limit);
+            } catch (Exception e) {
+                log.warn("[reconciler] Batch after id={} failed: {}", afterId, e.getMessage());
+                break;
+            }
+
+            requeued.increment(result.requeued());
+            failed.increment(result.failedCreatedAt().size());
+            result.failedCreatedAt().forEach(createdAt -> registrationMetrics.recordEndToEnd(createdAt, "failed"));
+
+            scanned += result.scanned();
+            requeuedTotal += result.requeued();
+            failedTotal += result.failedCreatedAt().size();
+            afterId = result.lastId();
+            if (result.scanned() < limit) {
+                break;
+            }
+        }
+
+        if (scanned > 0) {
+            log.info("[reconciler] Scanned {} abandoned PENDING accounts: requeued={}, failed={}",
+                    scanned, requeuedTotal, failedTotal);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package besu.optimization.outbox;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Registration Outbox Entity
+ *
+ * A pending blockchain registration, written in the same TX 1 as the
+ * Account insert. The row survives restarts and is deleted by TX 2
+ * once the wallet has been stored (or the account is marked FAILED).
+ */
+@Entity
+@Table(name = "registration_outbox")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class RegistrationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registration_outbox_id_seq")
+    @SequenceGenerator(name = "registration_outbox_id_seq", sequenceName = "registration_outbox_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", unique = true, nullable = false)
+    private String userId;
+
+    @Column(name = "user_name")
+    private String userName;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "available_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime availableAt = LocalDateTime.now();
+
+    @Column(name = "created_at")
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // availableAt before the current lease: when the entry became due (not persisted)
+    @Transient
+    private LocalDateTime dueAt;
+
+    /**
+     * Claim this entry for dispatch.
+     * The row stays invisible to other pollers until the lease expires,
+     * so a node that dies mid-registration only delays the work.
+     */
+    public void lease(LocalDateTime leaseUntil) {
+        this.dueAt = this.availableAt;
+        this.attempts = this.attempts + 1;
+        this.availableAt = leaseUntil;
+    }
+}
@@ -0,0 +1,52 @@
+package besu.optimization.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface RegistrationOutboxRepository extends JpaRepository<RegistrationOutbox, Long> {
+
+    /**
+     * Lock a batch of due entries.
+     * SKIP LOCKED lets several backend nodes poll concurrently without
+     * blocking on (or double-claiming) each other's rows.
+     */
+    @Query(value = "SELECT * FROM registration_outbox WHERE available_at <= :now " +
+                   "ORDER BY available_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<RegistrationOutbox> findClaimable(@Param("now") LocalDateTime now,
+                                           @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE RegistrationOutbox o SET o.availableAt = :availableAt WHERE o.id = :id")
+    int reschedule(@Param("id") Long id, @Param("availableAt") LocalDateTime availableAt);
+
+    @Modifying
+    @Query("UPDATE RegistrationOutbox o SET o.availableAt = :availableAt, o.attempts = o.attempts - 1 " +
+           "WHERE o.id = :id")
+    int defer(@Param("id") Long id, @Param("availableAt") LocalDateTime availableAt);
+
+    @Modifying
+    @Query("DELETE FROM RegistrationOutbox o WHERE o.userId = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+
+    /**
+     * Give PENDING accounts a new outbox entry (PendingReconciler)
+     *
+     * created_at is copied from the account, so the end-to-end time still
+     * starts at TX 1. An entry created meanwhile wins (ON CONFLICT DO NOTHING).
+     *
+     * @return userIds that got an entry
+     */
+    @Query(value = "INSERT INTO registration_outbox (user_id, user_name, attempts, available_at, created_at) " +
+                   "SELECT a.user_id, a.user_name, 0, CURRENT_TIMESTAMP, a.created_at " +
+                   "FROM accounts a WHERE a.id IN (:accountIds) AND a.status = 0 " +
+                   "ON CONFLICT (user_id) DO NOTHING RETURNING user_id",
+           nativeQuery = true)
+    List<String> requeue(@Param("accountIds") Collection<Long> accountIds);
+}
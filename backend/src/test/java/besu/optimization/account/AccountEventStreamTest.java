@@ -0,0 +1,96 @@
+package besu.optimization.account;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * AccountEventStream Unit Tests
+ *
+ * Tests SSE subscriptions for account status transitions:
+ * - Unknown accounts are rejected
+ * - PENDING accounts stay subscribed until TX 2 publishes a transition
+ * - Accounts that already left PENDING are reported and closed immediately
+ */
+@ExtendWith(MockitoExtension.class)
+class AccountEventStreamTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountEventStream eventStream;
+
+    @BeforeEach
+    void setUp() {
+        eventStream = new AccountEventStream(accountRepository, new SimpleMeterRegistry());
+        eventStream.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventStream.shutdown();
+    }
+
+    private static Account account(String userId, int status) {
+        return Account.builder().id(1L).userId(userId).userName("Test").status(status).build();
+    }
+
+    @Test
+    @DisplayName("subscribe - should reject unknown accounts")
+    void subscribe_UnknownAccount_Throws() {
+        // Given
+        when(accountRepository.findByUserIdIn(any())).thenReturn(List.of());
+
+        // When & Then
+        assertThatThrownBy(() -> eventStream.subscribe(List.of("ghost")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Account not found");
+        assertThat(eventStream.subscribedAccounts()).isZero();
+    }
+
+    @Test
+    @DisplayName("subscribe - should keep PENDING accounts subscribed until a status change arrives")
+    void subscribe_Pending_ClosedByStatusChange() throws InterruptedException {
+        // Given
+        when(accountRepository.findByUserIdIn(any())).thenReturn(List.of(account("user1", 0)));
+
+        // When
+        eventStream.subscribe(List.of("user1"));
+
+        // Then
+        assertThat(eventStream.subscribedAccounts()).isEqualTo(1);
+
+        // When
+        eventStream.onStatusChanged(AccountStatusChangedEvent.active("user1", "0xwallet", "0xtx"));
+
+        // Then (delivery is asynchronous)
+        for (int i = 0; i < 100 && eventStream.subscribedAccounts() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(eventStream.subscribedAccounts()).isZero();
+    }
+
+    @Test
+    @DisplayName("subscribe - should report accounts that are already ACTIVE and close the stream")
+    void subscribe_AlreadyActive_ClosesImmediately() {
+        // Given
+        when(accountRepository.findByUserIdIn(any())).thenReturn(List.of(account("user1", 1)));
+
+        // When
+        eventStream.subscribe(List.of("user1"));
+
+        // Then
+        assertThat(eventStream.subscribedAccounts()).isZero();
+    }
+}
@@ -1,26 +1,33 @@
 package besu.optimization.account;
 
-import besu.optimization.blockchain.BlockchainService;
-import besu.optimization.config.AsyncConfig;
+import besu.optimization.outbox.RegistrationOutbox;
+import besu.optimization.outbox.RegistrationOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
  * AccountService Unit Tests
  *
  * Tests the Transaction Isolation Pattern implementation:
- * - TX 1: Quick DB insert
- * - Async blockchain call (mocked)
+ * - TX 1: Quick DB insert + outbox entry
+ * - Async blockchain call (dispatched from the outbox, not exercised here)
  * - TX 2: Quick DB update (via BlockchainUpdater)
  */
 @ExtendWith(MockitoExtension.class)
@@ -30,41 +37,35 @@ class AccountServiceTest {
     private AccountRepository accountRepository;
 
     @Mock
-    private BlockchainService blockchainService;
+    private RegistrationOutboxRepository outboxRepository;
 
-    @Mock
-    private AsyncConfig asyncConfig;
+    private AccountCache accountCache;
+
+    private UserIdBloomFilter userIdFilter;
 
     private AccountService accountService;
 
     @BeforeEach
     void setUp() {
-        accountService = new AccountService(accountRepository, blockchainService, asyncConfig);
+        accountCache = new AccountCache(new SimpleMeterRegistry());
+        // Keep PENDING entries long enough not to expire mid-test
+        ReflectionTestUtils.setField(accountCache, "pendingTtlMs", 60_000L);
+        accountCache.init();
+        // Not warmed: every userId might exist until a test warms it
+        userIdFilter = new UserIdBloomFilter(mock(JdbcTemplate.class), new SimpleMeterRegistry());
+        userIdFilter.init();
+        accountService = new AccountService(accountRepository, outboxRepository, accountCache, userIdFilter);
     }
 
     @Test
-    @DisplayName("createAccount - should save account and trigger async blockchain registration")
+    @DisplayName("createAccount - should save account and enqueue blockchain registration in the outbox")
     void createAccount_Success() {
         // Given
         String userId = "testUser001";
         String userName = "Test User";
         var request = new AccountService.CreateAccountRequest(userId, userName);
 
-        Account savedAccount = Account.builder()
-                .id(1L)
-                .userId(userId)
-                .userName(userName)
-                .status(0)
-                .build();
-
-        when(accountRepository.existsByUserId(userId)).thenReturn(false);
-        when(accountRepository.save(any(Account.class))).thenReturn(savedAccount);
-
-        // Capture the async task
-        doAnswer(invocation -> {
-            // Just verify runAfterCommit is called, don't execute the task
-            return null;
-        }).when(asyncConfig).runAfterCommit(any(Runnable.class));
+        when(accountRepository.insertIfAbsent(userId, userName)).thenReturn(Optional.of(1L));
 
         // When
         AccountService.AccountDto result = accountService.createAccount(request);
@@ -76,11 +77,13 @@ class AccountServiceTest {
         assertThat(result.userName()).isEqualTo(userName);
         assertThat(result.status()).isEqualTo(0); // PENDING
 
-        // Verify DB save was called
-        verify(accountRepository).save(any(Account.class));
+        // Verify single-statement insert was used (no separate existence probe)
+        verify(accountRepository).insertIfAbsent(userId, userName);
+        verify(accountRepository, never()).existsByUserId(any());
 
-        // Verify async blockchain registration was triggered
-        verify(asyncConfig).runAfterCommit(any(Runnable.class));
+        // Verify blockchain registration was enqueued in the same transaction
+        verify(outboxRepository).save(argThat((RegistrationOutbox entry) ->
+                entry.getUserId().equals(userId) && entry.getUserName().equals(userName)));
     }
 
     @Test
@@ -90,15 +93,114 @@ class AccountServiceTest {
         String userId = "existingUser";
         var request = new AccountService.CreateAccountRequest(userId, "Test");
 
-        when(accountRepository.existsByUserId(userId)).thenReturn(true);
+        when(accountRepository.insertIfAbsent(userId, "Test")).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> accountService.createAccount(request))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("User ID already exists");
 
-        // Verify no save attempt
-        verify(accountRepository, never()).save(any());
+        // Verify no outbox entry for the duplicate
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("createAccount - should fail when the Idempotency-Key belongs to another userId")
+    void createAccount_IdempotencyKeyTaken_ThrowsException() {
+        // Given
+        var request = new AccountService.CreateAccountRequest("user2", "Test");
+        when(accountRepository.insertIfAbsent("user2", "Test")).thenReturn(Optional.of(2L));
+        when(accountRepository.insertIdempotencyKey("key-1", "user2")).thenReturn(0);
+
+        // When & Then
+        assertThatThrownBy(() -> accountService.createAccount(request, "key-1"))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("createAccounts - should insert new rows in one batch and report duplicates and invalid rows")
+    void createAccounts_MixedChunk() {
+        // Given
+        var requests = List.of(
+                new AccountService.CreateAccountRequest("newUser1", "New 1"),
+                new AccountService.CreateAccountRequest("existingUser", "Existing"),
+                new AccountService.CreateAccountRequest("newUser1", "Repeated in chunk"),
+                new AccountService.CreateAccountRequest(" ", "Blank"),
+                new AccountService.CreateAccountRequest("newUser2", "New 2"));
+
+        when(accountRepository.findExistingUserIds(any())).thenReturn(List.of("existingUser"));
+
+        // When
+        List<AccountService.BulkCreateResult> results = accountService.createAccounts(requests);
+
+        // Then
+        assertThat(results).extracting(AccountService.BulkCreateResult::status)
+                .containsExactly("CREATED", "DUPLICATE", "DUPLICATE", "INVALID", "CREATED");
+
+        // Verify accounts and outbox entries were written as one batch each
+        verify(accountRepository).saveAll(argThat((List<Account> accounts) -> accounts.size() == 2));
+        verify(outboxRepository).saveAll(argThat((List<RegistrationOutbox> entries) -> entries.size() == 2));
+    }
+
+    @Test
+    @DisplayName("createAccounts - should look up every userId while the Bloom filter is disabled")
+    void createAccounts_BloomFilterDisabled_LooksUpAll() {
+        // Given: default config; another node may have inserted newUser2
+        userIdFilter.warm();
+        var requests = List.of(
+                new AccountService.CreateAccountRequest("newUser1", "New 1"),
+                new AccountService.CreateAccountRequest("newUser2", "New 2"));
+        when(accountRepository.findExistingUserIds(any())).thenReturn(List.of("newUser2"));
+
+        // When
+        List<AccountService.BulkCreateResult> results = accountService.createAccounts(requests);
+
+        // Then
+        assertThat(results).extracting(AccountService.BulkCreateResult::status)
+                .containsExactly("CREATED", "DUPLICATE");
+        verify(accountRepository).findExistingUserIds(Set.of("newUser1", "newUser2"));
+    }
+
+    @Test
+    @DisplayName("createAccounts - should only look up userIds the Bloom filter cannot rule out")
+    void createAccounts_BloomFilter_NarrowsExistenceQuery() {
+        // Given: single-writer setup, warmed (empty table), then existingUser inserted earlier
+        ReflectionTestUtils.setField(userIdFilter, "enabled", true);
+        userIdFilter.warm();
+        userIdFilter.put("existingUser");
+        var requests = List.of(
+                new AccountService.CreateAccountRequest("newUser1", "New 1"),
+                new AccountService.CreateAccountRequest("existingUser", "Existing"));
+        when(accountRepository.findExistingUserIds(any())).thenReturn(List.of("existingUser"));
+
+        // When
+        List<AccountService.BulkCreateResult> results = accountService.createAccounts(requests);
+
+        // Then
+        assertThat(results).extracting(AccountService.BulkCreateResult::status)
+                .containsExactly("CREATED", "DUPLICATE");
+        verify(accountRepository).findExistingUserIds(Set.of("existingUser"));
+        assertThat(userIdFilter.mightContain("newUser1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("createAccounts - should skip the existence query for a chunk of new userIds")
+    void createAccounts_AllNew_NoExistenceQuery() {
+        // Given: single-writer setup
+        ReflectionTestUtils.setField(userIdFilter, "enabled", true);
+        userIdFilter.warm();
+        var requests = List.of(
+                new AccountService.CreateAccountRequest("newUser1", "New 1"),
+                new AccountService.CreateAccountRequest("newUser2", "New 2"));
+
+        // When
+        List<AccountService.BulkCreateResult> results = accountService.createAccounts(requests);
+
+        // Then
+        assertThat(results).extracting(AccountService.BulkCreateResult::status)
+                .containsExactly("CREATED", "CREATED");
+        verify(accountRepository, never()).findExistingUserIds(any());
     }
 
     @Test
@@ -127,6 +229,94 @@ class AccountServiceTest {
         assertThat(result.status()).isEqualTo(1); // ACTIVE
     }
 
+    @Test
+    @DisplayName("getAccount - should serve repeated reads from the cache")
+    void getAccount_CachedAfterFirstRead() {
+        // Given
+        String userId = "cachedUser";
+        Account account = Account.builder()
+                .id(1L)
+                .userId(userId)
+                .userName("Test")
+                .walletAddress("0x1234567890123456789012345678901234567890")
+                .status(1)
+                .build();
+
+        when(accountRepository.findByUserId(userId)).thenReturn(Optional.of(account));
+
+        // When
+        accountService.getAccount(userId);
+        AccountService.AccountDto result = accountService.getAccount(userId);
+
+        // Then
+        assertThat(result.status()).isEqualTo(1);
+        verify(accountRepository, times(1)).findByUserId(userId);
+    }
+
+    @Test
+    @DisplayName("getAccount - should reflect a committed status change without a DB read")
+    void getAccount_UpdatedByStatusChange() {
+        // Given
+        String userId = "pendingUser";
+        Account account = Account.builder()
+                .id(1L)
+                .userId(userId)
+                .userName("Test")
+                .status(0)
+                .build();
+
+        when(accountRepository.findByUserId(userId)).thenReturn(Optional.of(account));
+        accountService.getAccount(userId);
+
+        // When
+        accountCache.onStatusChanged(AccountStatusChangedEvent.active(userId, "0xwallet", "0xtx"));
+        AccountService.AccountDto result = accountService.getAccount(userId);
+
+        // Then
+        assertThat(result.status()).isEqualTo(1);
+        assertThat(result.walletAddress()).isEqualTo("0xwallet");
+        assertThat(result.txHash()).isEqualTo("0xtx");
+        verify(accountRepository, times(1)).findByUserId(userId);
+    }
+
+    @Test
+    @DisplayName("getAccounts - should serve cached accounts and load the rest with one query")
+    void getAccounts_CacheThenSingleQuery() {
+        // Given: user1 already cached
+        Account user1 = Account.builder().id(1L).userId("user1").userName("One").status(1).build();
+        Account user2 = Account.builder().id(2L).userId("user2").userName("Two").status(1).build();
+        when(accountRepository.findByUserId("user1")).thenReturn(Optional.of(user1));
+        accountService.getAccount("user1");
+        when(accountRepository.findAllByUserIdArray(any())).thenReturn(List.of(user2));
+
+        // When
+        Map<String, AccountService.AccountDto> result =
+                accountService.getAccounts(List.of("user2", "unknown", "user1", "user2"));
+
+        // Then: request order, unknown left out, duplicates collapsed
+        assertThat(result).containsOnlyKeys("user2", "user1");
+        assertThat(result.keySet()).containsExactly("user2", "user1");
+        verify(accountRepository).findAllByUserIdArray(argThat((String[] ids) ->
+                Set.of(ids).equals(Set.of("user2", "unknown"))));
+
+        // Found accounts are cached for the next lookup
+        accountService.getAccounts(List.of("user1", "user2"));
+        verify(accountRepository, times(1)).findAllByUserIdArray(any());
+    }
+
+    @Test
+    @DisplayName("getAccounts - should reject more userIds than max-user-ids")
+    void getAccounts_TooMany_ThrowsException() {
+        // Given
+        ReflectionTestUtils.setField(accountService, "maxLookupUserIds", 2);
+
+        // When & Then
+        assertThatThrownBy(() -> accountService.getAccounts(List.of("a", "b", "c")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("At most 2");
+        verifyNoInteractions(accountRepository);
+    }
+
     @Test
     @DisplayName("getAccount - should throw exception when not found")
     void getAccount_NotFound_ThrowsException() {
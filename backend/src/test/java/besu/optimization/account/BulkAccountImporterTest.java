@@ -0,0 +1,135 @@
+package besu.optimization.account;
+
+import besu.optimization.account.AccountService.AccountDto;
+import besu.optimization.account.AccountService.BulkCreateResult;
+import besu.optimization.account.AccountService.CreateAccountRequest;
+import besu.optimization.outbox.AdmissionControl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * BulkAccountImporter Unit Tests
+ *
+ * Tests NDJSON streaming for POST /api/accounts/bulk:
+ * - Input is split into chunks of chunk-size rows
+ * - One result line per input line, malformed lines included
+ * - Unique-constraint conflicts fall back to per-row creation
+ * - Chunks shed by admission control are reported as OVERLOADED
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkAccountImporterTest {
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private AdmissionControl admissionControl;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BulkAccountImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        importer = new BulkAccountImporter(accountService, objectMapper, admissionControl);
+        ReflectionTestUtils.setField(importer, "chunkSize", 2);
+        lenient().when(admissionControl.tryAdmit(anyInt())).thenReturn(true);
+    }
+
+    private String run(String body) throws Exception {
+        var out = new ByteArrayOutputStream();
+        importer.importAccounts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("importAccounts - should process input in chunks and emit one result per line")
+    void importAccounts_ChunksAndResults() throws Exception {
+        // Given
+        when(accountService.createAccounts(anyList())).thenAnswer(invocation ->
+                invocation.<List<CreateAccountRequest>>getArgument(0).stream()
+                        .map(request -> request == null
+                                ? BulkCreateResult.invalid(null, "userId is required")
+                                : new BulkCreateResult(request.userId(), 1L, "CREATED", null))
+                        .toList());
+
+        String body = """
+                {"userId":"user1","userName":"One"}
+                {"userId":"user2","userName":"Two"}
+
+                not-json
+                """;
+
+        // When
+        String[] lines = run(body).split("\n");
+
+        // Then
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).contains("\"userId\":\"user1\"").contains("CREATED");
+        assertThat(lines[1]).contains("\"userId\":\"user2\"").contains("CREATED");
+        assertThat(lines[2]).contains("INVALID").contains("Malformed JSON");
+        verify(accountService, times(2)).createAccounts(anyList());
+    }
+
+    @Test
+    @DisplayName("importAccounts - should retry a conflicting chunk row by row")
+    void importAccounts_Conflict_FallsBackPerRow() throws Exception {
+        // Given
+        when(accountService.createAccounts(anyList())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(accountService.createAccount(new CreateAccountRequest("user1", "One")))
+                .thenReturn(AccountDto.pending(10L, "user1", "One"));
+        when(accountService.createAccount(new CreateAccountRequest("user2", "Two")))
+                .thenThrow(new IllegalArgumentException("User ID already exists: user2"));
+
+        String body = """
+                {"userId":"user1","userName":"One"}
+                {"userId":"user2","userName":"Two"}
+                """;
+
+        // When
+        String[] lines = run(body).split("\n");
+
+        // Then
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("CREATED").contains("\"id\":10");
+        assertThat(lines[1]).contains("DUPLICATE");
+        verify(accountService, times(2)).createAccount(any());
+    }
+
+    @Test
+    @DisplayName("importAccounts - should report a shed chunk as OVERLOADED without creating it")
+    void importAccounts_Shed_ReportsOverloaded() throws Exception {
+        // Given
+        when(admissionControl.tryAdmit(anyInt())).thenReturn(false);
+
+        String body = """
+                {"userId":"user1","userName":"One"}
+                """;
+
+        // When
+        String[] lines = run(body).split("\n");
+
+        // Then
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("\"userId\":\"user1\"").contains("OVERLOADED");
+        verify(accountService, never()).createAccounts(anyList());
+    }
+}
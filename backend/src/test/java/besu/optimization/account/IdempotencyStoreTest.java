@@ -0,0 +1,125 @@
+package besu.optimization.account;
+
+import besu.optimization.account.AccountService.AccountDto;
+import besu.optimization.account.AccountService.CreateAccountRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * IdempotencyStore Unit Tests
+ *
+ * - First claim owns the key, a completed key replays its response
+ * - In-flight key: 409, different payload: 422
+ * - A released key can be claimed again
+ * - Persisted keys are only consulted with persist=true
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private IdempotencyStore store;
+
+    private final CreateAccountRequest request = new CreateAccountRequest("user1", "Test");
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(accountRepository, new SimpleMeterRegistry());
+        store.init();
+    }
+
+    @Test
+    @DisplayName("claim - should replay the completed response without a DB read")
+    void claim_Completed_Replays() {
+        // Given
+        AccountDto created = AccountDto.pending(1L, "user1", "Test");
+        assertThat(store.claim("key-1", request)).isEmpty();
+        store.complete("key-1", request, created);
+
+        // When
+        Optional<AccountDto> replay = store.claim("key-1", request);
+
+        // Then
+        assertThat(replay).contains(created);
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("claim - should reject a retry while the first request is in flight")
+    void claim_InFlight_Conflict() {
+        // Given
+        store.claim("key-1", request);
+
+        // When & Then
+        assertThatThrownBy(() -> store.claim("key-1", request))
+                .isInstanceOf(IdempotencyConflictException.class);
+    }
+
+    @Test
+    @DisplayName("claim - should reject a key reused with a different payload")
+    void claim_DifferentPayload_Rejected() {
+        // Given
+        store.claim("key-1", request);
+
+        // When & Then
+        assertThatThrownBy(() -> store.claim("key-1", new CreateAccountRequest("user2", "Test")))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    @DisplayName("release - should let a failed request's key be claimed again")
+    void release_AllowsNewClaim() {
+        // Given
+        store.claim("key-1", request);
+
+        // When
+        store.release("key-1");
+
+        // Then
+        assertThat(store.claim("key-1", request)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("claim - should reject blank and oversized keys")
+    void claim_InvalidKey_Rejected() {
+        assertThatThrownBy(() -> store.claim(" ", request))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.claim("k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1), request))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("findPersisted - should return the userId of a persisted key, or fail for another userId")
+    void findPersisted_ChecksUserId() {
+        // Given
+        ReflectionTestUtils.setField(store, "persist", true);
+        when(accountRepository.findUserIdByIdempotencyKey("key-1")).thenReturn(Optional.of("user1"));
+        when(accountRepository.findUserIdByIdempotencyKey("key-2")).thenReturn(Optional.of("other"));
+
+        // When & Then
+        assertThat(store.persistentKey("key-1")).isEqualTo("key-1");
+        assertThat(store.findPersisted("key-1", request)).contains("user1");
+        assertThatThrownBy(() -> store.findPersisted("key-2", request))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    @DisplayName("findPersisted - should not touch the DB without persist")
+    void findPersisted_Disabled_NoQuery() {
+        assertThat(store.persistentKey("key-1")).isNull();
+        assertThat(store.findPersisted("key-1", request)).isEmpty();
+        verifyNoInteractions(accountRepository);
+    }
+}
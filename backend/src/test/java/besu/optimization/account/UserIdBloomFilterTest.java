@@ -0,0 +1,132 @@
+package besu.optimization.account;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserIdBloomFilter Unit Tests
+ *
+ * - No false negatives, false positives near the configured rate
+ * - Adds stages past the expected insertions without losing entries
+ * - Warm-up pages through accounts by id
+ */
+@ExtendWith(MockitoExtension.class)
+class UserIdBloomFilterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private UserIdBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new UserIdBloomFilter(jdbcTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "expectedInsertions", 10_000L);
+        ReflectionTestUtils.setField(filter, "fpp", 0.01);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        filter.init();
+    }
+
+    @Test
+    @DisplayName("mightContain - should report every userId before warm-up")
+    void mightContain_NotWarmed_AlwaysTrue() {
+        assertThat(filter.mightContain("anyone")).isTrue();
+    }
+
+    @Test
+    @DisplayName("mightContain - should never miss an added userId and rarely report an unknown one")
+    void mightContain_NoFalseNegatives() {
+        // Given
+        filter.warm();
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user-" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user-" + i)).isTrue();
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    @Test
+    @DisplayName("put - should add stages past the expected insertions and keep the rate bounded")
+    void put_BeyondCapacity_AddsStages() {
+        // Given
+        filter.warm();
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            filter.put("user-" + i);
+        }
+
+        // Then
+        // A userId that is a false positive when added is not counted again
+        assertThat(filter.size()).isBetween(49_000L, 50_000L);
+        assertThat(ReflectionTestUtils.getField(filter, "stages")).asList().hasSizeGreaterThan(1);
+        int falsePositives = 0;
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(filter.mightContain("user-" + i)).isTrue();
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(1000);
+    }
+
+    @Test
+    @DisplayName("warm - should load userIds page by page")
+    void warm_PagesById() throws SQLException {
+        // Given: a full page (ids 1-2), then a short one (id 3)
+        ReflectionTestUtils.setField(filter, "warmPageSize", 2);
+        doAnswer(invocation -> {
+            rows(invocation.getArgument(1), new long[]{1, 2}, "a", "b");
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(0L), eq(2));
+        doAnswer(invocation -> {
+            rows(invocation.getArgument(1), new long[]{3}, "c");
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(2L), eq(2));
+
+        // When
+        filter.warm();
+
+        // Then
+        assertThat(filter.isReady()).isTrue();
+        assertThat(filter.size()).isEqualTo(3);
+        assertThat(filter.mightContain("a")).isTrue();
+        assertThat(filter.mightContain("c")).isTrue();
+    }
+
+    private static void rows(RowCallbackHandler handler, long[] ids, String... userIds) throws SQLException {
+        for (int i = 0; i < ids.length; i++) {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("id")).thenReturn(ids[i]);
+            when(rs.getString("user_id")).thenReturn(userIds[i]);
+            handler.processRow(rs);
+        }
+    }
+}
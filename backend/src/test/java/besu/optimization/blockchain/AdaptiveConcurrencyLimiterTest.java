@@ -0,0 +1,121 @@
+package besu.optimization.blockchain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * AdaptiveConcurrencyLimiter Unit Tests
+ *
+ * Tests the AIMD behaviour:
+ * - Limit grows while fully used and calls succeed
+ * - Limit shrinks on dropped calls only, not on slow (finality-bound) calls
+ * - acquire() blocks at the limit
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(limiter, "initialLimit", 4);
+        ReflectionTestUtils.setField(limiter, "minLimit", 2);
+        limiter.init();
+    }
+
+    private List<AdaptiveConcurrencyLimiter.Permit> acquire(int n) throws InterruptedException {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            permits.add(limiter.acquire());
+        }
+        return permits;
+    }
+
+    @Test
+    @DisplayName("success - should increase the limit while it is fully used")
+    void success_IncreasesLimit() throws InterruptedException {
+        // Given: limit fully used
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(4);
+
+        // When: steady latency
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(100), false);
+        }
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::ignore);
+
+        // Then
+        assertThat(limiter.getLimit()).isGreaterThan(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("dropped - should decrease the limit but not below the minimum")
+    void dropped_DecreasesLimit() throws InterruptedException {
+        // When
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire().dropped();
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("onSample - should not shrink the limit on healthy 4-10s finality latency")
+    void onSample_FinalityLatency_DoesNotDecreaseLimit() throws InterruptedException {
+        // Given: limit fully used
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(4);
+        Random random = new Random(42);
+
+        // When: uniform 4-10s samples, a third of them above 2x the minimum
+        for (int i = 0; i < 2_000; i++) {
+            long rttMs = 4_000 + random.nextInt(6_001);
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(rttMs), false);
+        }
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::ignore);
+
+        // Then
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(4);
+        assertThat(limiter.getNoLoadRttMs()).isGreaterThanOrEqualTo(4_000);
+    }
+
+    @Test
+    @DisplayName("acquire - should block at the limit until a permit is released")
+    void acquire_BlocksAtLimit() throws InterruptedException {
+        // Given
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(4);
+        CountDownLatch acquired = new CountDownLatch(1);
+
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                limiter.acquire().ignore();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Then: blocked while all permits are held
+        assertThat(acquired.await(200, TimeUnit.MILLISECONDS)).isFalse();
+
+        // When
+        permits.get(0).ignore();
+
+        // Then
+        assertThat(acquired.await(2, TimeUnit.SECONDS)).isTrue();
+        waiter.join();
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::ignore);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,337 @@
+package besu.optimization.blockchain;
+
+import besu.optimization.blockchain.BlockchainUpdater.BlockchainUpdate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClient;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.SignedRawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * BesuAccountRegistrar Unit Tests
+ *
+ * Runs the registrar and ConfirmationTracker against a local JSON-RPC
+ * stub (JDK HttpServer, single and batch requests) that mines submitted
+ * transactions on demand:
+ * - open() is signed by the new wallet for the configured chain
+ * - The registration completes when the tracker sees its block, with TX 2
+ *   written for the block
+ * - Rejected / reverted funding leaves txHash null
+ * - Funder mode pipelines nonces and recovers from taken or dropped ones
+ */
+class BesuAccountRegistrarTest {
+
+    private static final String FAUCET = "0x1111111111111111111111111111111111111111";
+    private static final String FUNDER_KEY = "0x4f3edf983ac636a65a842ce7c78d9aa706d3b113bce9c46f30d7d21715b23b1d";
+    private static final String FUNDER = Credentials.create(FUNDER_KEY).getAddress();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FakeChain chain = new FakeChain();
+
+    private HttpServer server;
+    private JsonRpcClient jsonRpcClient;
+    private BlockchainUpdateBatcher updateBatcher;
+    private ConfirmationTracker tracker;
+    private BesuAccountRegistrar registrar;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            Object response;
+            if (request.isArray()) {
+                List<Object> responses = new ArrayList<>();
+                request.forEach(call -> responses.add(respond(call)));
+                response = responses;
+            } else {
+                response = respond(request);
+            }
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        jsonRpcClient = new JsonRpcClient(RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build(), new SimpleMeterRegistry());
+        jsonRpcClient.init();
+        updateBatcher = mock(BlockchainUpdateBatcher.class);
+
+        // Tracker without its polling thread; the tests call poll()
+        tracker = new ConfirmationTracker(jsonRpcClient, updateBatcher, new SimpleMeterRegistry());
+        tracker.init();
+        tracker.poll();
+
+        NonceManager nonceManager = new NonceManager(jsonRpcClient, new SimpleMeterRegistry());
+        nonceManager.init();
+
+        registrar = new BesuAccountRegistrar(jsonRpcClient, tracker, nonceManager);
+        ReflectionTestUtils.setField(registrar, "faucetAddress", FAUCET);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        jsonRpcClient.shutdown();
+        server.stop(0);
+    }
+
+    private Map<String, Object> respond(JsonNode call) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("jsonrpc", "2.0");
+        response.put("id", call.get("id").asLong());
+        try {
+            response.put("result", chain.handle(call.get("method").asText(), call.get("params")));
+        } catch (IllegalStateException e) {
+            response.put("error", Map.of("code", -32000, "message", e.getMessage()));
+        }
+        return response;
+    }
+
+    @Test
+    @DisplayName("register - should send open() signed by the new wallet and complete from its block")
+    @SuppressWarnings("unchecked")
+    void register_SignsOpenAndConfirmsPerBlock() throws Exception {
+        // When
+        CompletableFuture<BesuAccountRegistrar.WalletRegistration> future = registrar.register("req-1", "user1");
+
+        // Then: pending until mined
+        assertThat(future).isNotDone();
+        chain.mine();
+        tracker.poll();
+        BesuAccountRegistrar.WalletRegistration wallet = future.join();
+
+        String raw = chain.sent.get(0);
+        SignedRawTransaction tx = (SignedRawTransaction) TransactionDecoder.decode(raw);
+        assertThat(tx.getTo()).isEqualToIgnoringCase(FAUCET);
+        assertThat(Numeric.cleanHexPrefix(tx.getData())).isEqualTo("fcfff16f");
+        assertThat(tx.getNonce()).isZero();
+        assertThat(tx.getGasPrice()).isZero();
+        assertThat(tx.getChainId()).isEqualTo(1337L);
+        assertThat(tx.getFrom()).isEqualToIgnoringCase(wallet.walletAddress());
+
+        assertThat(wallet.txHash()).isEqualTo(Hash.sha3(raw));
+        assertThat(wallet.recorded()).isTrue();
+
+        ArgumentCaptor<List<BlockchainUpdate>> block = ArgumentCaptor.forClass(List.class);
+        verify(updateBatcher).flush(block.capture());
+        assertThat(block.getValue()).containsExactly(
+                new BlockchainUpdate("user1", wallet.walletAddress(), wallet.txHash()));
+    }
+
+    @Test
+    @DisplayName("register - should register without funding when open() reverts")
+    void register_Reverted_NoTxHash() {
+        // Given
+        chain.revert = true;
+
+        // When
+        CompletableFuture<BesuAccountRegistrar.WalletRegistration> future = registrar.register("req-2", "user2");
+        chain.mine();
+        tracker.poll();
+
+        // Then
+        BesuAccountRegistrar.WalletRegistration wallet = future.join();
+        assertThat(wallet.walletAddress()).startsWith("0x").hasSize(42);
+        assertThat(wallet.txHash()).isNull();
+        assertThat(wallet.recorded()).isFalse();
+    }
+
+    @Test
+    @DisplayName("register - should register without funding when Besu rejects the transaction")
+    void register_Rejected_NoTxHash() {
+        // Given
+        chain.rejectSends = true;
+
+        // When
+        BesuAccountRegistrar.WalletRegistration wallet = registrar.register("req-3", "user3").join();
+
+        // Then
+        assertThat(wallet.txHash()).isNull();
+        assertThat(tracker.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("register - should not call Besu when no faucet is configured")
+    void register_NoFaucet_NoCalls() {
+        // Given
+        ReflectionTestUtils.setField(registrar, "faucetAddress", "");
+
+        // When
+        BesuAccountRegistrar.WalletRegistration wallet = registrar.register("req-4", "user4").join();
+
+        // Then
+        assertThat(wallet.walletAddress()).startsWith("0x");
+        assertThat(wallet.txHash()).isNull();
+        assertThat(chain.sent).isEmpty();
+    }
+
+    @Test
+    @DisplayName("register - funder mode should pipeline transfers with consecutive nonces")
+    void register_Funder_PipelinesNonces() {
+        // Given
+        useFunder();
+
+        // When: both sent before either is mined
+        CompletableFuture<BesuAccountRegistrar.WalletRegistration> first = registrar.register("req-5", "user5");
+        CompletableFuture<BesuAccountRegistrar.WalletRegistration> second = registrar.register("req-6", "user6");
+        chain.mine();
+        tracker.poll();
+
+        // Then
+        assertThat(nonces()).containsExactly(0L, 1L);
+        SignedRawTransaction tx = (SignedRawTransaction) TransactionDecoder.decode(chain.sent.get(0));
+        assertThat(tx.getTo()).isEqualToIgnoringCase(first.join().walletAddress());
+        assertThat(tx.getValue()).isEqualTo(BigInteger.TEN.pow(18));
+        assertThat(first.join().recorded()).isTrue();
+        assertThat(second.join().recorded()).isTrue();
+    }
+
+    @Test
+    @DisplayName("register - funder mode should resync and re-sign when the nonce is taken")
+    void register_Funder_NonceTooLow_Resyncs() {
+        // Given: the funder key is also used elsewhere
+        useFunder();
+        registrar.register("req-7", "user7");
+        chain.funderNonce += 2;
+
+        // When
+        CompletableFuture<BesuAccountRegistrar.WalletRegistration> future = registrar.register("req-8", "user8");
+        chain.mine();
+        tracker.poll();
+
+        // Then: nonce 1 was rejected, 3 is the node's pending nonce
+        assertThat(nonces()).containsExactly(0L, 3L);
+        assertThat(future.join().recorded()).isTrue();
+    }
+
+    @Test
+    @DisplayName("register - funder mode should reuse the nonce of a transfer the pool dropped")
+    void register_Funder_DroppedTransfer_ReleasesNonce() {
+        // Given: nonce 0 accepted, then dropped from the pool
+        useFunder();
+        CompletableFuture<BesuAccountRegistrar.WalletRegistration> dropped = registrar.register("req-9", "user9");
+        chain.drop();
+
+        // When: the tracker gives up on it
+        ReflectionTestUtils.setField(tracker, "timeoutMs", 0L);
+        tracker.poll();
+
+        // Then: the registration fails for retry, and the nonce is not left as a hole
+        assertThatThrownBy(dropped::join).hasCauseInstanceOf(TimeoutException.class);
+
+        ReflectionTestUtils.setField(tracker, "timeoutMs", 60_000L);
+        CompletableFuture<BesuAccountRegistrar.WalletRegistration> retry = registrar.register("req-10", "user9");
+        chain.mine();
+        tracker.poll();
+
+        assertThat(nonces()).containsExactly(0L, 0L);
+        assertThat(retry.join().recorded()).isTrue();
+    }
+
+    private void useFunder() {
+        ReflectionTestUtils.setField(registrar, "funding", "funder");
+        ReflectionTestUtils.setField(registrar, "funderPrivateKey", FUNDER_KEY);
+        registrar.init();
+    }
+
+    private List<Long> nonces() {
+        return chain.sent.stream()
+                .map(raw -> TransactionDecoder.decode(raw).getNonce().longValue())
+                .toList();
+    }
+
+    /**
+     * Minimal chain: sent transactions are mined into a new block by mine()
+     */
+    private static class FakeChain {
+        final List<String> sent = new ArrayList<>();
+        final List<List<String>> blocks = new ArrayList<>(List.of(List.of()));
+        final List<String> mempool = new ArrayList<>();
+        volatile boolean revert;
+        volatile boolean rejectSends;
+        // Next nonce of the funder key (new wallets always send nonce 0)
+        volatile long funderNonce;
+        volatile long minedFunderNonce;
+
+        synchronized Object handle(String method, JsonNode params) {
+            return switch (method) {
+                case "eth_blockNumber" -> Numeric.encodeQuantity(BigInteger.valueOf(blocks.size() - 1));
+                case "eth_sendRawTransaction" -> {
+                    if (rejectSends) {
+                        throw new IllegalStateException("Gas price below configured minimum gas price");
+                    }
+                    String raw = params.get(0).asText();
+                    SignedRawTransaction tx = (SignedRawTransaction) TransactionDecoder.decode(raw);
+                    if (FUNDER.equalsIgnoreCase(sender(tx))) {
+                        if (tx.getNonce().longValue() < funderNonce) {
+                            throw new IllegalStateException("Nonce too low");
+                        }
+                        funderNonce = tx.getNonce().longValue() + 1;
+                    }
+                    sent.add(raw);
+                    mempool.add(Hash.sha3(raw));
+                    yield Hash.sha3(raw);
+                }
+                case "eth_getBlockByNumber" -> Map.of("transactions",
+                        blocks.get(Numeric.decodeQuantity(params.get(0).asText()).intValue()));
+                case "eth_getTransactionByHash" -> {
+                    String hash = params.get(0).asText();
+                    boolean known = mempool.contains(hash) || blocks.stream().anyMatch(b -> b.contains(hash));
+                    yield known ? Map.of("hash", hash) : null;
+                }
+                case "eth_getTransactionReceipt" -> Map.of("status", revert ? "0x0" : "0x1");
+                case "eth_getTransactionCount" -> Numeric.encodeQuantity(BigInteger.valueOf(funderNonce));
+                default -> throw new IllegalStateException("Method not found: " + method);
+            };
+        }
+
+        private static String sender(SignedRawTransaction tx) {
+            try {
+                return tx.getFrom();
+            } catch (SignatureException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        synchronized void mine() {
+            blocks.add(List.copyOf(mempool));
+            mempool.clear();
+            minedFunderNonce = funderNonce;
+        }
+
+        /** Pool evicts everything pending; the pending nonce falls back to the mined one */
+        synchronized void drop() {
+            mempool.clear();
+            funderNonce = minedFunderNonce;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package besu.optimization.blockchain;
+
+import besu.optimization.config.AsyncConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * BlockchainService Unit Tests
+ *
+ * Tests binding of the middleware response to RegisterResponse against a
+ * mocked RestClient (MockRestServiceServer):
+ * - A JSON null txHash stays null instead of becoming "null"
+ * - A missing initialFunding registers the wallet with txHash null
+ * - An unreadable 2xx body fails without retry and counts as a
+ *   limiter / circuit breaker success (the middleware did answer)
+ */
+@ExtendWith(MockitoExtension.class)
+class BlockchainServiceTest {
+
+    private static final String REGISTER_URL = "http://middleware/api/accounts/register";
+
+    @Mock
+    private BlockchainUpdateBatcher updateBatcher;
+
+    @Mock
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Mock
+    private AdaptiveConcurrencyLimiter.Permit permit;
+
+    @Mock
+    private MiddlewareCircuitBreaker circuitBreaker;
+
+    @Mock
+    private MiddlewareCircuitBreaker.Call call;
+
+    @Mock
+    private AsyncConfig asyncConfig;
+
+    @Mock
+    private BesuAccountRegistrar besuRegistrar;
+
+    private MockRestServiceServer middleware;
+    private BlockchainService blockchainService;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        RestClient.Builder builder = RestClient.builder().baseUrl("http://middleware");
+        middleware = MockRestServiceServer.bindTo(builder).build();
+
+        when(circuitBreaker.tryAcquire()).thenReturn(call);
+        when(concurrencyLimiter.acquire()).thenReturn(permit);
+
+        blockchainService = new BlockchainService(builder.build(), updateBatcher, concurrencyLimiter,
+                circuitBreaker, asyncConfig, besuRegistrar, new RegistrationMetrics(new SimpleMeterRegistry()));
+    }
+
+    private void respond(String body) {
+        middleware.expect(requestTo(REGISTER_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("registerAccount - should keep a JSON null txHash as null")
+    void registerAccount_NullTxHash_StaysNull() {
+        // Given
+        respond("""
+                {"success":true,"data":{"walletAddress":"0xw1","initialFunding":{"txHash":null}}}""");
+
+        // When
+        BlockchainService.RegistrationResult result =
+                blockchainService.registerAccountAsync("user1", "User 1").join();
+
+        // Then
+        assertThat(result).isEqualTo(BlockchainService.RegistrationResult.REGISTERED);
+        verify(updateBatcher).submit("user1", "0xw1", null);
+        middleware.verify();
+    }
+
+    @Test
+    @DisplayName("registerAccount - should register with txHash null when initialFunding is missing")
+    void registerAccount_NoInitialFunding_NullTxHash() {
+        // Given: unknown fields are ignored
+        respond("""
+                {"success":true,"data":{"walletAddress":"0xw2","privateKey":"0xsecret"}}""");
+
+        // When
+        BlockchainService.RegistrationResult result =
+                blockchainService.registerAccountAsync("user2", "User 2").join();
+
+        // Then
+        assertThat(result).isEqualTo(BlockchainService.RegistrationResult.REGISTERED);
+        verify(updateBatcher).submit("user2", "0xw2", null);
+    }
+
+    @Test
+    @DisplayName("registerAccount - should fail an unreadable 2xx without retry, as a limiter/breaker success")
+    void registerAccount_UnreadableBody_FailsWithoutRetry() {
+        // Given
+        respond("<html>Bad Gateway</html>");
+
+        // When
+        BlockchainService.RegistrationResult result =
+                blockchainService.registerAccountAsync("user3", "User 3").join();
+
+        // Then
+        assertThat(result).isEqualTo(BlockchainService.RegistrationResult.FAILED);
+        verify(permit).success();
+        verify(permit, never()).dropped();
+        verify(call).success(anyLong());
+        verify(call, never()).failure(anyLong());
+        verify(updateBatcher, never()).submit(anyString(), anyString(), any());
+        verifyNoInteractions(asyncConfig);
+        middleware.verify();
+    }
+}
@@ -0,0 +1,122 @@
+package besu.optimization.blockchain;
+
+import besu.optimization.blockchain.BlockchainUpdater.BlockchainUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * BlockchainUpdateBatcher Unit Tests
+ *
+ * Tests the write-behind TX 2 stage:
+ * - Completed registrations are coalesced into one batch
+ * - A failed batch falls back to per-row updates
+ * - Batch size is recorded as a metric
+ */
+@ExtendWith(MockitoExtension.class)
+class BlockchainUpdateBatcherTest {
+
+    @Mock
+    private BlockchainUpdater blockchainUpdater;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BlockchainUpdateBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        batcher = new BlockchainUpdateBatcher(blockchainUpdater, meterRegistry);
+        batcher.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("submit - should write queued updates through the batch path")
+    void submit_WritesThroughBatch() throws InterruptedException {
+        // Given: a long enough delay that both rows land in one batch
+        ReflectionTestUtils.setField(batcher, "maxDelayMs", 1000L);
+        List<List<BlockchainUpdate>> flushed = new CopyOnWriteArrayList<>();
+        CountDownLatch written = new CountDownLatch(1);
+        when(blockchainUpdater.updateBlockchainBatch(anyList())).thenAnswer(invocation -> {
+            // The writer reuses its batch list, so keep a copy
+            List<BlockchainUpdate> batch = List.copyOf(invocation.getArgument(0));
+            flushed.add(batch);
+            written.countDown();
+            int[] rows = new int[batch.size()];
+            Arrays.fill(rows, 1);
+            return rows;
+        });
+
+        // When
+        batcher.submit("user1", "0xwallet1", "0xtx1");
+        batcher.submit("user2", "0xwallet2", "0xtx2");
+
+        // Then
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+        batcher.shutdown(); // wait for the writer to finish checking the row counts
+        assertThat(flushed).containsExactly(List.of(
+                new BlockchainUpdate("user1", "0xwallet1", "0xtx1"),
+                new BlockchainUpdate("user2", "0xwallet2", "0xtx2")));
+        assertThat(meterRegistry.get("blockchain.tx2.row.failures").counter().count()).isZero();
+        verify(blockchainUpdater, never()).updateBlockchain(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("flush - should fall back to per-row updates when the batch fails")
+    void flush_BatchFails_FallsBackPerRow() {
+        // Given
+        List<BlockchainUpdate> batch = List.of(
+                new BlockchainUpdate("user1", "0xwallet1", "0xtx1"),
+                new BlockchainUpdate("user2", "0xwallet2", "0xtx2"));
+        when(blockchainUpdater.updateBlockchainBatch(batch)).thenThrow(new RuntimeException("deadlock"));
+        doThrow(new IllegalArgumentException("Account not found: user2"))
+                .when(blockchainUpdater).updateBlockchain("user2", "0xwallet2", "0xtx2");
+
+        // When
+        batcher.flush(batch);
+
+        // Then
+        verify(blockchainUpdater).updateBlockchain("user1", "0xwallet1", "0xtx1");
+        verify(blockchainUpdater).updateBlockchain("user2", "0xwallet2", "0xtx2");
+        assertThat(meterRegistry.get("blockchain.tx2.row.failures").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("flush - should record batch size")
+    void flush_RecordsBatchSize() {
+        // Given
+        List<BlockchainUpdate> batch = List.of(
+                new BlockchainUpdate("user1", "0xwallet1", "0xtx1"),
+                new BlockchainUpdate("user2", "0xwallet2", "0xtx2"),
+                new BlockchainUpdate("user3", "0xwallet3", "0xtx3"));
+        when(blockchainUpdater.updateBlockchainBatch(batch)).thenReturn(new int[] {1, 1, 1});
+
+        // When
+        batcher.flush(batch);
+
+        // Then
+        assertThat(meterRegistry.get("blockchain.tx2.batch.size").summary().totalAmount()).isEqualTo(3.0);
+        verify(blockchainUpdater, never()).updateBlockchain(any(), any(), any());
+    }
+}
@@ -0,0 +1,160 @@
+package besu.optimization.blockchain;
+
+import besu.optimization.blockchain.BlockchainUpdater.BlockchainUpdate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * ConfirmationTracker Unit Tests
+ *
+ * Tests per-block resolution:
+ * - One TX 2 batch per block with all of its confirmed registrations
+ * - Receipts only for tracked hashes
+ * - Unmined transactions time out, but not while catching up on blocks
+ */
+@ExtendWith(MockitoExtension.class)
+class ConfirmationTrackerTest {
+
+    @Mock
+    private JsonRpcClient jsonRpcClient;
+
+    @Mock
+    private BlockchainUpdateBatcher updateBatcher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConfirmationTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ConfirmationTracker(jsonRpcClient, updateBatcher, new SimpleMeterRegistry());
+        tracker.init();
+    }
+
+    private JsonNode json(Object value) {
+        return objectMapper.valueToTree(value);
+    }
+
+    private void head(long block) {
+        when(jsonRpcClient.call("eth_blockNumber")).thenReturn(json("0x" + Long.toHexString(block)));
+    }
+
+    @Test
+    @DisplayName("poll - should write one TX 2 batch per block and complete its registrations")
+    void poll_ResolvesWholeBlock() {
+        // Given: head is 0x10 when nothing is pending
+        head(0x10);
+        tracker.poll();
+
+        BlockchainUpdate user1 = new BlockchainUpdate("user1", "0xw1", "0xaa");
+        BlockchainUpdate user2 = new BlockchainUpdate("user2", "0xw2", "0xbb");
+        CompletableFuture<ConfirmationTracker.Confirmation> first = tracker.track("0xAA", user1);
+        CompletableFuture<ConfirmationTracker.Confirmation> second = tracker.track("0xbb", user2);
+
+        head(0x11);
+        when(jsonRpcClient.call("eth_getBlockByNumber", "0x11", false))
+                .thenReturn(json(Map.of("transactions", List.of("0xaa", "0xcc", "0xbb"))));
+        when(jsonRpcClient.callAsync("eth_getTransactionReceipt", "0xaa"))
+                .thenReturn(CompletableFuture.completedFuture(json(Map.of("status", "0x1"))));
+        when(jsonRpcClient.callAsync("eth_getTransactionReceipt", "0xbb"))
+                .thenReturn(CompletableFuture.completedFuture(json(Map.of("status", "0x0"))));
+
+        // When
+        tracker.poll();
+
+        // Then
+        verify(updateBatcher).flush(List.of(user1));
+        verify(jsonRpcClient, never()).callAsync("eth_getTransactionReceipt", "0xcc");
+        assertThat(first.join().status()).isEqualTo(ConfirmationTracker.Status.CONFIRMED);
+        assertThat(second.join().status()).isEqualTo(ConfirmationTracker.Status.REVERTED);
+        assertThat(first.join().blockNumber()).isEqualTo(0x11);
+        assertThat(tracker.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("poll - should not fetch blocks while nothing is pending")
+    void poll_NothingPending_OnlyReadsHead() {
+        // Given
+        head(0x10);
+
+        // When
+        tracker.poll();
+        tracker.poll();
+
+        // Then
+        verify(jsonRpcClient, times(2)).call("eth_blockNumber");
+        verifyNoMoreInteractions(jsonRpcClient);
+        verifyNoInteractions(updateBatcher);
+    }
+
+    @Test
+    @DisplayName("poll - should fail registrations that are not mined in time")
+    void poll_Unmined_TimesOut() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(tracker, "timeoutMs", 10L);
+        head(0x10);
+        tracker.poll();
+        CompletableFuture<ConfirmationTracker.Confirmation> future =
+                tracker.track("0xaa", new BlockchainUpdate("user1", "0xw1", "0xaa"));
+        Thread.sleep(20);
+
+        // When: head unchanged
+        tracker.poll();
+
+        // Then
+        assertThat(future).isCompletedExceptionally();
+        assertThatThrownBy(future::join).hasCauseInstanceOf(TimeoutException.class);
+        verify(updateBatcher, never()).flush(anyList());
+    }
+
+    @Test
+    @DisplayName("poll - should not time out registrations while still catching up with the head")
+    void poll_CatchingUp_DoesNotExpire() throws InterruptedException {
+        // Given: 0xaa mined in 0x12, two blocks behind the head after an outage
+        ReflectionTestUtils.setField(tracker, "timeoutMs", 10L);
+        ReflectionTestUtils.setField(tracker, "maxBlocksPerPoll", 1);
+        head(0x10);
+        tracker.poll();
+        BlockchainUpdate user1 = new BlockchainUpdate("user1", "0xw1", "0xaa");
+        CompletableFuture<ConfirmationTracker.Confirmation> future = tracker.track("0xaa", user1);
+        Thread.sleep(20);
+
+        head(0x12);
+        when(jsonRpcClient.call("eth_getBlockByNumber", "0x11", false))
+                .thenReturn(json(Map.of("transactions", List.of())));
+        when(jsonRpcClient.call("eth_getBlockByNumber", "0x12", false))
+                .thenReturn(json(Map.of("transactions", List.of("0xaa"))));
+        when(jsonRpcClient.callAsync("eth_getTransactionReceipt", "0xaa"))
+                .thenReturn(CompletableFuture.completedFuture(json(Map.of("status", "0x1"))));
+
+        // When: first poll reads only 0x11
+        tracker.poll();
+
+        // Then: still waiting, past its timeout
+        assertThat(future).isNotDone();
+
+        // When
+        tracker.poll();
+
+        // Then
+        assertThat(future.join().status()).isEqualTo(ConfirmationTracker.Status.CONFIRMED);
+        verify(updateBatcher).flush(List.of(user1));
+    }
+}
@@ -0,0 +1,223 @@
+package besu.optimization.blockchain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JsonRpcClient Unit Tests
+ *
+ * Tests call coalescing against a local JSON-RPC stub (JDK HttpServer):
+ * - Calls within the window share one batch POST
+ * - Each caller gets its own result or error, whatever the response order
+ * - An error for the batch as a whole fails every call as a transport error
+ * - max-size caps a batch; other methods are sent directly
+ */
+class JsonRpcClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> posts = new CopyOnWriteArrayList<>();
+    private volatile boolean rejectBatches;
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private JsonRpcClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            posts.add(request);
+            Object response;
+            if (request.isArray() && rejectBatches) {
+                // Single error object for the whole batch, as Besu does over rpc-http-max-batch-size
+                response = Map.of("jsonrpc", "2.0",
+                        "error", Map.of("code", -32005, "message", "Number of requests exceeds max batch size"));
+            } else if (request.isArray()) {
+                List<Object> responses = new ArrayList<>();
+                request.forEach(call -> responses.add(0, respond(call)));  // reversed order
+                response = responses;
+            } else {
+                response = respond(request);
+            }
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        client = new JsonRpcClient(RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build(), meterRegistry);
+        // Wide window so calls made one after another land in one batch
+        ReflectionTestUtils.setField(client, "windowMs", 200L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    // eth_getBalance echoes its address, "0xbad" is an error
+    private static Map<String, Object> respond(JsonNode call) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("jsonrpc", "2.0");
+        response.put("id", call.get("id").asLong());
+        String param = call.path("params").path(0).asText();
+        if ("0xbad".equals(param)) {
+            response.put("error", Map.of("code", -32602, "message", "Invalid params"));
+        } else {
+            response.put("result", call.get("method").asText() + ":" + param);
+        }
+        return response;
+    }
+
+    @Test
+    @DisplayName("callAsync - should send calls within the window as one batch")
+    void callAsync_CoalescesIntoOneBatch() {
+        // Given
+        client.init();
+
+        // When
+        List<CompletableFuture<JsonNode>> futures = IntStream.range(0, 5)
+                .mapToObj(i -> client.callAsync("eth_getBalance", "0x" + i, "latest"))
+                .toList();
+
+        // Then
+        for (int i = 0; i < 5; i++) {
+            assertThat(futures.get(i).join().asText()).isEqualTo("eth_getBalance:0x" + i);
+        }
+        assertThat(posts).hasSize(1);
+        assertThat(posts.get(0).isArray()).isTrue();
+
+        DistributionSummary batchSize = meterRegistry.find("blockchain.rpc.batch.size").summary();
+        assertThat(batchSize.count()).isEqualTo(1);
+        assertThat(batchSize.totalAmount()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("callAsync - should fail only the call whose batch entry is an error")
+    void callAsync_ErrorIsPerCall() {
+        // Given
+        client.init();
+
+        // When
+        CompletableFuture<JsonNode> ok = client.callAsync("eth_getTransactionReceipt", "0x1");
+        CompletableFuture<JsonNode> bad = client.callAsync("eth_getTransactionReceipt", "0xbad");
+
+        // Then
+        assertThat(ok.join().asText()).isEqualTo("eth_getTransactionReceipt:0x1");
+        assertThatThrownBy(bad::join).hasCauseInstanceOf(JsonRpcException.class);
+        assertThat(posts).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("callAsync - should fail every call with a transport error when the whole batch is rejected")
+    void callAsync_BatchLevelError_IsTransportFailure() {
+        // Given
+        rejectBatches = true;
+        client.init();
+
+        // When
+        CompletableFuture<JsonNode> first = client.callAsync("eth_sendRawTransaction", "0x1");
+        CompletableFuture<JsonNode> second = client.callAsync("eth_sendRawTransaction", "0x2");
+
+        // Then: not a JsonRpcException, so callers retry instead of treating it as a rejection
+        assertThatThrownBy(first::join)
+                .hasCauseInstanceOf(RestClientException.class)
+                .hasMessageContaining("max batch size");
+        assertThatThrownBy(second::join)
+                .hasCauseInstanceOf(RestClientException.class);
+        assertThatThrownBy(() -> client.call("eth_sendRawTransaction", "0x3"))
+                .isInstanceOf(RestClientException.class)
+                .isNotInstanceOf(JsonRpcException.class);
+        assertThat(posts).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("call - should throw JsonRpcException itself for a batched method")
+    void call_Batched_ThrowsUnwrapped() {
+        // Given
+        client.init();
+
+        // When / Then
+        assertThatThrownBy(() -> client.call("eth_sendRawTransaction", "0xbad"))
+                .isInstanceOf(JsonRpcException.class)
+                .hasMessageContaining("Invalid params");
+    }
+
+    @Test
+    @DisplayName("callAsync - should split batches at max-size")
+    void callAsync_RespectsMaxSize() {
+        // Given
+        ReflectionTestUtils.setField(client, "maxBatchSize", 2);
+        client.init();
+
+        // When
+        List<CompletableFuture<JsonNode>> futures = IntStream.range(0, 5)
+                .mapToObj(i -> client.callAsync("eth_getBalance", "0x" + i, "latest"))
+                .toList();
+        futures.forEach(CompletableFuture::join);
+
+        // Then
+        assertThat(posts).hasSize(3);
+        assertThat(posts).allSatisfy(post -> assertThat(post.size()).isLessThanOrEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("call - should send other methods as single requests")
+    void call_NotBatched_SendsDirectly() {
+        // Given
+        client.init();
+
+        // When
+        JsonNode result = client.call("eth_blockNumber");
+
+        // Then
+        assertThat(result.asText()).isEqualTo("eth_blockNumber:");
+        assertThat(posts).hasSize(1);
+        assertThat(posts.get(0).isArray()).isFalse();
+    }
+
+    @Test
+    @DisplayName("call - should send every call directly when batching is disabled")
+    void call_BatchingDisabled_SendsDirectly() {
+        // Given
+        ReflectionTestUtils.setField(client, "batchEnabled", false);
+        client.init();
+
+        // When
+        client.call("eth_getBalance", "0x1", "latest");
+        client.call("eth_getBalance", "0x2", "latest");
+
+        // Then
+        assertThat(posts).hasSize(2);
+        assertThat(posts).noneMatch(JsonNode::isArray);
+    }
+}
@@ -0,0 +1,152 @@
+package besu.optimization.blockchain;
+
+import besu.optimization.blockchain.MiddlewareCircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * MiddlewareCircuitBreaker Unit Tests
+ *
+ * Tests the state machine:
+ * - Opens on failure rate and on slow-call rate over the window
+ * - Rejects calls while open
+ * - Half-open trial calls close or re-open the circuit
+ */
+class MiddlewareCircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(20);
+
+    private MiddlewareCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new MiddlewareCircuitBreaker(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(circuitBreaker, "windowSize", 10);
+        ReflectionTestUtils.setField(circuitBreaker, "minimumCalls", 10);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 100L);
+        ReflectionTestUtils.setField(circuitBreaker, "halfOpenCalls", 2);
+        circuitBreaker.init();
+    }
+
+    private void record(int n, long elapsedNanos, boolean failed) {
+        for (int i = 0; i < n; i++) {
+            MiddlewareCircuitBreaker.Call call = circuitBreaker.tryAcquire();
+            assertThat(call).isNotNull();
+            if (failed) {
+                call.failure(elapsedNanos);
+            } else {
+                call.success(elapsedNanos);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("closed - should stay closed below minimum calls")
+    void closed_BelowMinimumCalls_StaysClosed() {
+        // When
+        record(9, FAST, true);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("closed - should open and reject calls at the failure rate threshold")
+    void closed_FailureRateReached_Opens() {
+        // When: 5 of 10 failed (50%)
+        record(5, FAST, false);
+        record(5, FAST, true);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isNull();
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+        assertThat(circuitBreaker.retryAt()).isAfter(Instant.now());
+    }
+
+    @Test
+    @DisplayName("closed - should open on slow calls even when they succeed")
+    void closed_SlowCallRateReached_Opens() {
+        // When: 8 of 10 slow (80%)
+        record(2, FAST, false);
+        record(8, SLOW, false);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    @DisplayName("closed - old outcomes should slide out of the window")
+    void closed_OldFailuresEvicted() {
+        // Given: 4 failures, then a full window of successes
+        record(4, FAST, true);
+        record(10, FAST, false);
+
+        // Then
+        assertThat(circuitBreaker.getFailureRate()).isZero();
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("half-open - successful trial calls should close the circuit")
+    void halfOpen_TrialsSucceed_Closes() throws InterruptedException {
+        // Given
+        record(10, FAST, true);
+        Thread.sleep(150);
+
+        // When
+        MiddlewareCircuitBreaker.Call first = circuitBreaker.tryAcquire();
+        MiddlewareCircuitBreaker.Call second = circuitBreaker.tryAcquire();
+
+        // Then: only half-open-calls trials are let through
+        assertThat(circuitBreaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isNull();
+
+        first.success(FAST);
+        second.success(FAST);
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(circuitBreaker.getFailureRate()).isZero();
+    }
+
+    @Test
+    @DisplayName("half-open - failing trial calls should re-open the circuit")
+    void halfOpen_TrialsFail_Reopens() throws InterruptedException {
+        // Given
+        record(10, FAST, true);
+        Thread.sleep(150);
+
+        // When
+        circuitBreaker.tryAcquire().failure(FAST);
+        circuitBreaker.tryAcquire().success(FAST);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isNull();
+    }
+
+    @Test
+    @DisplayName("half-open - ignored trial calls should give their slot back")
+    void halfOpen_IgnoredTrial_ReleasesSlot() throws InterruptedException {
+        // Given
+        record(10, FAST, true);
+        Thread.sleep(150);
+        MiddlewareCircuitBreaker.Call first = circuitBreaker.tryAcquire();
+        circuitBreaker.tryAcquire();
+
+        // When
+        first.ignore();
+
+        // Then
+        assertThat(circuitBreaker.tryAcquire()).isNotNull();
+    }
+}
@@ -0,0 +1,188 @@
+package besu.optimization.blockchain;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * NonceManager Unit Tests
+ *
+ * Tests per-sender nonce allocation:
+ * - Concurrent allocations never repeat a nonce
+ * - Released nonces are reused before new ones
+ * - Resync never moves the counter down; reset does
+ * - Node rejection messages are classified
+ */
+@ExtendWith(MockitoExtension.class)
+class NonceManagerTest {
+
+    private static final String SENDER = "0xFE3B557E8Fb62b89F4916B721be55cEb828dBd73";
+
+    @Mock
+    private JsonRpcClient jsonRpcClient;
+
+    private NonceManager nonceManager;
+
+    @BeforeEach
+    void setUp() {
+        nonceManager = new NonceManager(jsonRpcClient, new SimpleMeterRegistry());
+        nonceManager.init();
+    }
+
+    private void pendingNonce(long nonce) {
+        when(jsonRpcClient.call("eth_getTransactionCount", SENDER, "pending"))
+                .thenReturn(TextNode.valueOf("0x" + Long.toHexString(nonce)));
+    }
+
+    @Test
+    @DisplayName("allocate - should start at the pending nonce and never hand out a nonce twice")
+    void allocate_ConcurrentUnique() throws InterruptedException {
+        // Given
+        pendingNonce(7);
+        int threads = 16;
+        int perThread = 500;
+        Set<Long> nonces = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    nonces.add(nonceManager.allocate(SENDER));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Then: 7 .. 7 + 8000 - 1, no duplicates, one chain read
+        assertThat(nonces).hasSize(threads * perThread);
+        assertThat(nonces).allMatch(n -> n >= 7 && n < 7 + threads * perThread);
+        verify(jsonRpcClient, times(1)).call("eth_getTransactionCount", SENDER, "pending");
+    }
+
+    @Test
+    @DisplayName("release - should step back the latest nonce and reuse older ones first")
+    void release_FillsGaps() {
+        // Given
+        pendingNonce(0);
+        List<Long> allocated = List.of(
+                nonceManager.allocate(SENDER), nonceManager.allocate(SENDER),
+                nonceManager.allocate(SENDER), nonceManager.allocate(SENDER));
+        assertThat(allocated).containsExactly(0L, 1L, 2L, 3L);
+
+        // When: 3 (latest) and 1 (a gap) are rejected
+        nonceManager.release(SENDER, 3);
+        nonceManager.release(SENDER, 1);
+
+        // Then
+        assertThat(nonceManager.allocate(SENDER)).isEqualTo(1);
+        assertThat(nonceManager.allocate(SENDER)).isEqualTo(3);
+        assertThat(nonceManager.allocate(SENDER)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("resync - should move up to the pending nonce but never down")
+    void resync_OnlyMovesUp() {
+        // Given
+        pendingNonce(5);
+        nonceManager.allocate(SENDER);
+        nonceManager.allocate(SENDER);
+
+        // When: another process used the key up to nonce 9
+        pendingNonce(10);
+        nonceManager.resync(SENDER);
+
+        // Then
+        assertThat(nonceManager.allocate(SENDER)).isEqualTo(10);
+
+        // When: the node lags behind our allocations
+        pendingNonce(8);
+        nonceManager.resync(SENDER);
+
+        // Then
+        assertThat(nonceManager.allocate(SENDER)).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("reset - should restart from the pending nonce")
+    void reset_MovesDown() {
+        // Given
+        pendingNonce(0);
+        for (int i = 0; i < 5; i++) {
+            nonceManager.allocate(SENDER);
+        }
+
+        // When: nonce 2 never reached the pool
+        pendingNonce(2);
+        nonceManager.reset(SENDER);
+
+        // Then
+        assertThat(nonceManager.allocate(SENDER)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("reconcile - should release the nonce only if the node does not have the transaction")
+    void reconcile_ReleasesUnknownTransaction() {
+        // Given
+        pendingNonce(0);
+        nonceManager.allocate(SENDER);
+        nonceManager.allocate(SENDER);
+        when(jsonRpcClient.call("eth_getTransactionByHash", "0xlost")).thenReturn(NullNode.getInstance());
+        when(jsonRpcClient.call("eth_getTransactionByHash", "0xseen"))
+                .thenReturn(JsonNodeFactory.instance.objectNode().put("nonce", "0x1"));
+
+        // When
+        nonceManager.reconcile(SENDER, 1, "0xseen");
+        nonceManager.reconcile(SENDER, 0, "0xlost");
+
+        // Then
+        assertThat(nonceManager.allocate(SENDER)).isEqualTo(0);
+        assertThat(nonceManager.allocate(SENDER)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("classify - should map Besu and Geth rejection messages")
+    void classify_Messages() {
+        assertThat(NonceManager.classify(new JsonRpcException("eth_sendRawTransaction", -32001, "Nonce too low")))
+                .isEqualTo(NonceManager.Rejection.NONCE_TOO_LOW);
+        assertThat(NonceManager.classify(new JsonRpcException("eth_sendRawTransaction", -32000,
+                "Transaction nonce is too distant from current sender nonce")))
+                .isEqualTo(NonceManager.Rejection.NONCE_TOO_HIGH);
+        assertThat(NonceManager.classify(new JsonRpcException("eth_sendRawTransaction", -32000,
+                "Replacement transaction underpriced")))
+                .isEqualTo(NonceManager.Rejection.REPLACEMENT_UNDERPRICED);
+        assertThat(NonceManager.classify(new JsonRpcException("eth_sendRawTransaction", -32000, "Known transaction")))
+                .isEqualTo(NonceManager.Rejection.ALREADY_KNOWN);
+        assertThat(NonceManager.classify(new JsonRpcException("eth_sendRawTransaction", -32000, "already known")))
+                .isEqualTo(NonceManager.Rejection.ALREADY_KNOWN);
+        assertThat(NonceManager.classify(new JsonRpcException("eth_sendRawTransaction", -32000,
+                "Gas price below configured minimum gas price")))
+                .isEqualTo(NonceManager.Rejection.OTHER);
+    }
+}
@@ -1,11 +1,16 @@
 package besu.optimization.config;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -16,6 +21,8 @@ import static org.assertj.core.api.Assertions.*;
  * - 64 worker threads
  * - 4000 queue capacity
  * - CallerRunsPolicy for backpressure
+ *
+ * And the async.mode=virtual alternative (virtual thread per task + bulkhead).
  */
 class AsyncConfigTest {
 
@@ -23,7 +30,7 @@ class AsyncConfigTest {
     @DisplayName("AsyncConfig - should initialize with paper-specified values")
     void init_MatchesPaperSpecifications() {
         // Given & When
-        AsyncConfig asyncConfig = new AsyncConfig();
+        AsyncConfig asyncConfig = new AsyncConfig(new SimpleMeterRegistry());
         asyncConfig.init();
 
         // Then
@@ -38,7 +45,7 @@ class AsyncConfigTest {
     @DisplayName("runAsync - should execute task in background thread")
     void runAsync_ExecutesInBackground() throws InterruptedException {
         // Given
-        AsyncConfig asyncConfig = new AsyncConfig();
+        AsyncConfig asyncConfig = new AsyncConfig(new SimpleMeterRegistry());
         asyncConfig.init();
 
         CountDownLatch latch = new CountDownLatch(1);
@@ -67,7 +74,7 @@ class AsyncConfigTest {
     @DisplayName("getStats - should return current executor statistics")
     void getStats_ReturnsValidStats() {
         // Given
-        AsyncConfig asyncConfig = new AsyncConfig();
+        AsyncConfig asyncConfig = new AsyncConfig(new SimpleMeterRegistry());
         asyncConfig.init();
 
         // When
@@ -82,4 +89,255 @@ class AsyncConfigTest {
         // Cleanup
         asyncConfig.shutdown();
     }
+
+    @Test
+    @DisplayName("runLater - should run task on a worker after the delay")
+    void runLater_RunsOnWorkerAfterDelay() throws InterruptedException {
+        // Given
+        AsyncConfig asyncConfig = new AsyncConfig(new SimpleMeterRegistry());
+        asyncConfig.init();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicBoolean onWorker = new AtomicBoolean(false);
+        long start = System.nanoTime();
+
+        // When
+        asyncConfig.runLater(() -> {
+            onWorker.set(Thread.currentThread().getName().startsWith("blockchain-"));
+            latch.countDown();
+        }, 200);
+
+        // Then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(200);
+        assertThat(onWorker.get()).isTrue();
+
+        // Cleanup
+        asyncConfig.shutdown();
+    }
+
+    @Test
+    @DisplayName("runLater - should put a due task back on the timer instead of running it there when saturated")
+    void runLater_Saturated_NeverRunsOnTimer() throws InterruptedException {
+        // Given: default caller-runs policy, the only slot taken
+        AsyncConfig asyncConfig = virtualConfig(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        asyncConfig.runAsync(() -> awaitQuietly(release));
+
+        CountDownLatch ran = new CountDownLatch(1);
+        AtomicBoolean onTimer = new AtomicBoolean(false);
+
+        // When
+        asyncConfig.runLater(() -> {
+            onTimer.set(Thread.currentThread().getName().equals("async-timer"));
+            ran.countDown();
+        }, 10);
+
+        // Then: waits while saturated, then runs on the executor
+        assertThat(ran.await(300, TimeUnit.MILLISECONDS)).isFalse();
+        release.countDown();
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(onTimer.get()).isFalse();
+        assertThat(asyncConfig.getStats().callerRunsTasks()).isZero();
+
+        // Cleanup
+        asyncConfig.shutdown();
+    }
+
+    @Test
+    @DisplayName("virtual mode - should execute task on a virtual thread")
+    void virtualMode_ExecutesOnVirtualThread() throws InterruptedException {
+        // Given
+        AsyncConfig asyncConfig = virtualConfig(100, 1000);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicBoolean virtual = new AtomicBoolean(false);
+
+        // When
+        asyncConfig.runAsync(() -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            latch.countDown();
+        });
+
+        // Then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(virtual.get()).isTrue();
+
+        // Cleanup
+        asyncConfig.shutdown();
+        assertThat(asyncConfig.getStats().completedTasks()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("virtual mode - bulkhead should bound concurrently running tasks")
+    void virtualMode_BulkheadBoundsConcurrency() throws InterruptedException {
+        // Given
+        AsyncConfig asyncConfig = virtualConfig(8, 1000);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(100);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            asyncConfig.runAsync(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(20);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        // Then
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(8);
+
+        // Cleanup
+        asyncConfig.shutdown();
+    }
+
+    @Test
+    @DisplayName("virtual mode - beyond max-pending the caller should run the task")
+    void virtualMode_OverMaxPending_RunsInCaller() throws InterruptedException {
+        // Given
+        AsyncConfig asyncConfig = virtualConfig(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        asyncConfig.runAsync(() -> awaitQuietly(release));
+
+        AtomicBoolean ranInCaller = new AtomicBoolean(false);
+        Thread caller = Thread.currentThread();
+
+        // When
+        asyncConfig.runAsync(() -> ranInCaller.set(Thread.currentThread() == caller));
+
+        // Then
+        assertThat(ranInCaller.get()).isTrue();
+        assertThat(asyncConfig.remainingCapacity()).isZero();
+        assertThat(asyncConfig.getStats().callerRunsTasks()).isEqualTo(1);
+
+        // Cleanup
+        release.countDown();
+        asyncConfig.shutdown();
+    }
+
+    @Test
+    @DisplayName("abort policy - should reject instead of running in the caller")
+    void abortPolicy_Saturated_Rejects() {
+        // Given
+        AsyncConfig asyncConfig = new AsyncConfig(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(asyncConfig, "mode", "virtual");
+        ReflectionTestUtils.setField(asyncConfig, "maxConcurrency", 1);
+        ReflectionTestUtils.setField(asyncConfig, "maxPending", 1);
+        ReflectionTestUtils.setField(asyncConfig, "rejectionPolicy", "abort");
+        asyncConfig.init();
+        CountDownLatch release = new CountDownLatch(1);
+        asyncConfig.runAsync(() -> awaitQuietly(release));
+
+        // When & Then
+        assertThatThrownBy(() -> asyncConfig.runAsync(() -> { }))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(asyncConfig.getStats().rejectedTasks()).isEqualTo(1);
+
+        // Cleanup
+        release.countDown();
+        asyncConfig.shutdown();
+    }
+
+    @Test
+    @DisplayName("metrics - should export saturation gauges, counters and dwell time")
+    void metrics_ExportSaturation() throws InterruptedException {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AsyncConfig asyncConfig = new AsyncConfig(registry);
+        ReflectionTestUtils.setField(asyncConfig, "mode", "virtual");
+        ReflectionTestUtils.setField(asyncConfig, "maxConcurrency", 1);
+        ReflectionTestUtils.setField(asyncConfig, "maxPending", 2);
+        asyncConfig.init();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+
+        // When: one running, one waiting for the bulkhead, one run by the caller
+        asyncConfig.runAsync(() -> {
+            awaitQuietly(release);
+            done.countDown();
+        });
+        asyncConfig.runAsync(done::countDown);
+        asyncConfig.runAsync(() -> { });
+
+        // Then
+        assertThat(registry.get("async.executor.caller.runs").tag("mode", "virtual").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("async.executor.remaining.capacity").gauge().value()).isZero();
+
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(registry.get("async.executor.dwell").timer().count()).isEqualTo(2);
+        await(() -> registry.get("async.executor.completed").functionCounter().count() == 2);
+        assertThat(registry.get("async.executor.active").gauge().value()).isZero();
+        assertThat(registry.get("async.executor.queued").gauge().value()).isZero();
+        assertThat(registry.get("async.executor.rejected").functionCounter().count()).isZero();
+
+        // Cleanup
+        asyncConfig.shutdown();
+    }
+
+    @Test
+    @DisplayName("virtual mode - 1000 blocking registrations should all run at once")
+    void virtualMode_BlockingTasks_RunConcurrently() throws InterruptedException {
+        // Given: tasks that block until released (a finality wait)
+        // Pool vs virtual wall-clock time: AsyncConfigBlockingBenchmark (./gradlew jmh)
+        AsyncConfig asyncConfig = virtualConfig(2000, 20000);
+        CountDownLatch started = new CountDownLatch(1000);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            asyncConfig.runAsync(() -> {
+                started.countDown();
+                awaitQuietly(release);
+            });
+        }
+
+        // Then: every task is blocked at the same time, none waits for a worker
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(asyncConfig.getStats().activeThreads()).isEqualTo(1000);
+        assertThat(asyncConfig.getStats().queueSize()).isZero();
+
+        // Cleanup
+        release.countDown();
+        asyncConfig.shutdown();
+    }
+
+    private static AsyncConfig virtualConfig(int maxConcurrency, int maxPending) {
+        AsyncConfig asyncConfig = new AsyncConfig(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(asyncConfig, "mode", "virtual");
+        ReflectionTestUtils.setField(asyncConfig, "maxConcurrency", maxConcurrency);
+        ReflectionTestUtils.setField(asyncConfig, "maxPending", maxPending);
+        asyncConfig.init();
+        return asyncConfig;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
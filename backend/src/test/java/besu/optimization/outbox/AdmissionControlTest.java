@@ -0,0 +1,97 @@
+package besu.optimization.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AdmissionControl Unit Tests
+ *
+ * Tests load shedding on the registration backlog:
+ * - Creates are admitted below max-backlog and shed at it
+ * - Shedding stops only below the resume level
+ * - Local admissions count between outbox refreshes
+ */
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlTest {
+
+    @Mock
+    private RegistrationOutboxRepository outboxRepository;
+
+    private AdmissionControl admissionControl;
+
+    @BeforeEach
+    void setUp() {
+        admissionControl = new AdmissionControl(outboxRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(admissionControl, "maxBacklog", 100L);
+        admissionControl.init();
+    }
+
+    @Test
+    @DisplayName("admit - should shed with Retry-After once the backlog is full")
+    void admit_BacklogFull_ThrowsOverloaded() {
+        // Given
+        when(outboxRepository.count()).thenReturn(100L);
+        admissionControl.refresh();
+
+        // When & Then
+        assertThat(admissionControl.isShedding()).isTrue();
+        assertThatThrownBy(() -> admissionControl.admit())
+                .isInstanceOf(OverloadedException.class)
+                .satisfies(e -> assertThat(((OverloadedException) e).getRetryAfterSeconds()).isPositive());
+        assertThatThrownBy(() -> admissionControl.checkAdmission())
+                .isInstanceOf(OverloadedException.class);
+    }
+
+    @Test
+    @DisplayName("tryAdmit - should count admissions made between refreshes")
+    void tryAdmit_CountsLocalAdmissions() {
+        // Given
+        when(outboxRepository.count()).thenReturn(90L);
+        admissionControl.refresh();
+
+        // When
+        boolean first = admissionControl.tryAdmit(10);
+        boolean second = admissionControl.tryAdmit(1);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+    }
+
+    @Test
+    @DisplayName("refresh - should resume only below the resume level")
+    void refresh_Hysteresis() {
+        // Given
+        when(outboxRepository.count()).thenReturn(100L, 85L, 79L);
+        admissionControl.refresh();
+
+        // When & Then
+        admissionControl.refresh();
+        assertThat(admissionControl.isShedding()).isTrue();
+
+        admissionControl.refresh();
+        assertThat(admissionControl.isShedding()).isFalse();
+        assertThatCode(() -> admissionControl.admit()).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("admit - should always admit when disabled")
+    void admit_Disabled_AlwaysAdmits() {
+        // Given
+        ReflectionTestUtils.setField(admissionControl, "enabled", false);
+
+        // When & Then
+        assertThat(admissionControl.tryAdmit(1_000)).isTrue();
+        assertThatCode(() -> admissionControl.checkAdmission()).doesNotThrowAnyException();
+        verifyNoInteractions(outboxRepository);
+    }
+}
@@ -0,0 +1,233 @@
+package besu.optimization.outbox;
+
+import besu.optimization.blockchain.BlockchainService;
+import besu.optimization.blockchain.BlockchainService.RegistrationResult;
+import besu.optimization.blockchain.MiddlewareCircuitBreaker;
+import besu.optimization.blockchain.BlockchainUpdater;
+import besu.optimization.blockchain.RegistrationMetrics;
+import besu.optimization.config.AsyncConfig;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * OutboxDispatcher Unit Tests
+ *
+ * Tests the durable dispatch loop:
+ * - Claims are sized to the executor's free capacity
+ * - Failed registrations are rescheduled
+ * - Exhausted registrations are marked FAILED
+ * - Open circuit: nothing is claimed, deferred entries are parked
+ * - Entries the executor rejects are released
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private BlockchainService blockchainService;
+
+    @Mock
+    private BlockchainUpdater blockchainUpdater;
+
+    @Mock
+    private AsyncConfig asyncConfig;
+
+    @Mock
+    private MiddlewareCircuitBreaker circuitBreaker;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new OutboxDispatcher(outboxService, blockchainService, blockchainUpdater, asyncConfig,
+                circuitBreaker, new RegistrationMetrics(meterRegistry));
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 200);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "retryDelaySeconds", 30L);
+    }
+
+    private static RegistrationOutbox entry(long id, String userId, int attempts) {
+        return RegistrationOutbox.builder()
+                .id(id)
+                .userId(userId)
+                .userName("Test")
+                .attempts(attempts)
+                .build();
+    }
+
+    // As returned by claimBatch: due at dueAt, then leased (availableAt moves to the lease expiry)
+    private static RegistrationOutbox claimed(long id, String userId, LocalDateTime dueAt) {
+        RegistrationOutbox entry = RegistrationOutbox.builder()
+                .id(id)
+                .userId(userId)
+                .userName("Test")
+                .availableAt(dueAt)
+                .build();
+        entry.lease(LocalDateTime.now().plusSeconds(300));
+        return entry;
+    }
+
+    @Test
+    @DisplayName("poll - should claim up to executor capacity and dispatch each entry")
+    void poll_DispatchesClaimedEntries() {
+        // Given
+        when(circuitBreaker.isCallPermitted()).thenReturn(true);
+        when(asyncConfig.remainingCapacity()).thenReturn(2);
+        LocalDateTime dueAt = LocalDateTime.now().minusSeconds(2);
+        when(outboxService.claimBatch(2)).thenReturn(List.of(claimed(1L, "user1", dueAt), claimed(2L, "user2", dueAt)));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(asyncConfig).runAsync(any(Runnable.class));
+        when(blockchainService.registerAccountAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(RegistrationResult.REGISTERED));
+
+        // When
+        dispatcher.poll();
+
+        // Then
+        verify(blockchainService).registerAccountAsync("user1", "Test");
+        verify(blockchainService).registerAccountAsync("user2", "Test");
+        verify(outboxService, never()).reschedule(any(), any());
+        Timer outboxDwell = meterRegistry.get("registration.queue.dwell").tag("queue", "outbox").timer();
+        assertThat(outboxDwell.count()).isEqualTo(2);
+        // Waited ~2s each since due, not the (future) lease expiry clamped to zero
+        assertThat(outboxDwell.totalTime(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(4);
+        assertThat(meterRegistry.get("registration.queue.dwell").tag("queue", "executor").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("poll - should not claim when executor is saturated")
+    void poll_ExecutorSaturated_SkipsClaim() {
+        // Given
+        when(circuitBreaker.isCallPermitted()).thenReturn(true);
+        when(asyncConfig.remainingCapacity()).thenReturn(0);
+
+        // When
+        dispatcher.poll();
+
+        // Then
+        verify(outboxService, never()).claimBatch(anyInt());
+    }
+
+    @Test
+    @DisplayName("dispatch - should reschedule entry when registration fails")
+    void dispatch_Failure_Reschedules() {
+        // Given
+        when(blockchainService.registerAccountAsync("user1", "Test")).thenReturn(CompletableFuture.completedFuture(RegistrationResult.FAILED));
+
+        // When
+        dispatcher.dispatch(entry(1L, "user1", 1));
+
+        // Then
+        verify(outboxService).reschedule(eq(1L), any(LocalDateTime.class));
+        verify(blockchainUpdater, never()).markFailed(any());
+    }
+
+    @Test
+    @DisplayName("dispatch - should mark account FAILED after max attempts")
+    void dispatch_AttemptsExhausted_MarksFailed() {
+        // Given
+        when(blockchainService.registerAccountAsync("user1", "Test"))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("middleware down")));
+
+        // When
+        dispatcher.dispatch(entry(1L, "user1", 3));
+
+        // Then
+        verify(blockchainUpdater).markFailed("user1");
+        verify(outboxService, never()).reschedule(any(), any());
+        assertThat(meterRegistry.get("registration.end.to.end").tag("outcome", "failed").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("dispatch - should not reschedule before a pending registration completes")
+    void dispatch_Pending_WaitsForCompletion() {
+        // Given
+        CompletableFuture<RegistrationResult> registration = new CompletableFuture<>();
+        when(blockchainService.registerAccountAsync("user1", "Test")).thenReturn(registration);
+
+        // When
+        dispatcher.dispatch(entry(1L, "user1", 1));
+
+        // Then
+        verify(outboxService, never()).reschedule(any(), any());
+        registration.complete(RegistrationResult.FAILED);
+        verify(outboxService).reschedule(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("poll - should not claim while the circuit is open")
+    void poll_CircuitOpen_SkipsClaim() {
+        // Given
+        when(circuitBreaker.isCallPermitted()).thenReturn(false);
+
+        // When
+        dispatcher.poll();
+
+        // Then
+        verify(outboxService, never()).claimBatch(anyInt());
+    }
+
+    @Test
+    @DisplayName("dispatch - should park a deferred entry without using an attempt")
+    void dispatch_Deferred_Parks() {
+        // Given
+        when(blockchainService.registerAccountAsync("user1", "Test"))
+                .thenReturn(CompletableFuture.completedFuture(RegistrationResult.DEFERRED));
+        when(circuitBreaker.retryAt()).thenReturn(Instant.now().plusSeconds(30));
+
+        // When
+        dispatcher.dispatch(entry(1L, "user1", 3));
+
+        // Then
+        verify(outboxService).defer(eq(1L), any(LocalDateTime.class));
+        verify(outboxService, never()).reschedule(any(), any());
+        verify(blockchainUpdater, never()).markFailed(any());
+    }
+
+    @Test
+    @DisplayName("poll - should release entries the executor rejects")
+    void poll_ExecutorRejects_ReleasesRemaining() {
+        // Given
+        when(circuitBreaker.isCallPermitted()).thenReturn(true);
+        when(asyncConfig.remainingCapacity()).thenReturn(3);
+        LocalDateTime now = LocalDateTime.now();
+        when(outboxService.claimBatch(3))
+                .thenReturn(List.of(claimed(1L, "user1", now), claimed(2L, "user2", now), claimed(3L, "user3", now)));
+        doNothing()
+                .doThrow(new RejectedExecutionException("saturated"))
+                .when(asyncConfig).runAsync(any(Runnable.class));
+
+        // When
+        dispatcher.poll();
+
+        // Then
+        verify(outboxService, never()).defer(eq(1L), any());
+        verify(outboxService).defer(eq(2L), any(LocalDateTime.class));
+        verify(outboxService).defer(eq(3L), any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,184 @@
+package besu.optimization.outbox;
+
+import besu.optimization.account.Account;
+import besu.optimization.account.AccountRepository;
+import besu.optimization.account.AccountStatusChangedEvent;
+import besu.optimization.outbox.OutboxService.ReconcileResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * OutboxService Unit Tests
+ *
+ * Tests the PendingReconciler page and its lock:
+ * - Accounts created before failBefore are marked FAILED, younger ones requeued
+ * - FAILED events only for rows the update actually changed
+ * - The run executes only while the session-level advisory lock is held
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    private RegistrationOutboxRepository outboxRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private OutboxService outboxService;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final LocalDateTime staleBefore = now.minusMinutes(10);
+    private final LocalDateTime failBefore = now.minusHours(24);
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxService(outboxRepository, accountRepository, eventPublisher, jdbcTemplate);
+    }
+
+    private static Account pending(long id, String userId, LocalDateTime createdAt) {
+        return Account.builder()
+                .id(id)
+                .userId(userId)
+                .userName("Test")
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("reconcileAbandoned - should fail accounts older than fail-after and requeue younger ones")
+    void reconcileAbandoned_SplitsByAge() {
+        // Given: user3 left PENDING meanwhile, so only user1 is actually marked FAILED
+        Account user1 = pending(1L, "user1", now.minusDays(2));
+        Account user2 = pending(2L, "user2", now.minusHours(1));
+        Account user3 = pending(3L, "user3", now.minusDays(3));
+        when(accountRepository.findAbandonedPending(0L, staleBefore, 10)).thenReturn(List.of(user1, user2, user3));
+        when(outboxRepository.requeue(List.of(2L))).thenReturn(List.of("user2"));
+        when(accountRepository.markFailedByIds(List.of(1L, 3L))).thenReturn(List.of("user1"));
+
+        // When
+        ReconcileResult result = outboxService.reconcileAbandoned(0L, staleBefore, failBefore, 10);
+
+        // Then
+        assertThat(result.lastId()).isEqualTo(3L);
+        assertThat(result.scanned()).isEqualTo(3);
+        assertThat(result.requeued()).isEqualTo(1);
+        assertThat(result.failedCreatedAt()).containsExactly(user1.getCreatedAt());
+        verify(eventPublisher).publishEvent(AccountStatusChangedEvent.failed("user1"));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("reconcileAbandoned - should only requeue when no account is past fail-after")
+    void reconcileAbandoned_AllYoung_OnlyRequeues() {
+        // Given
+        when(accountRepository.findAbandonedPending(5L, staleBefore, 10))
+                .thenReturn(List.of(pending(6L, "user6", now.minusHours(1))));
+        when(outboxRepository.requeue(List.of(6L))).thenReturn(List.of("user6"));
+
+        // When
+        ReconcileResult result = outboxService.reconcileAbandoned(5L, staleBefore, failBefore, 10);
+
+        // Then
+        assertThat(result).isEqualTo(new ReconcileResult(6L, 1, 1, List.of()));
+        verify(accountRepository, never()).markFailedByIds(anyCollection());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("reconcileAbandoned - should keep the cursor and write nothing for an empty page")
+    void reconcileAbandoned_EmptyPage() {
+        // Given
+        when(accountRepository.findAbandonedPending(anyLong(), any(), anyInt())).thenReturn(List.of());
+
+        // When
+        ReconcileResult result = outboxService.reconcileAbandoned(42L, staleBefore, failBefore, 10);
+
+        // Then
+        assertThat(result).isEqualTo(new ReconcileResult(42L, 0, 0, List.of()));
+        verifyNoInteractions(outboxRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("runWithReconcilerLock - should run and unlock when the lock is acquired")
+    void runWithReconcilerLock_Acquired_RunsAndUnlocks() throws Exception {
+        // Given
+        PreparedStatement unlock = lockConnection(true);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // When
+        boolean result = outboxService.runWithReconcilerLock(() -> ran.set(true));
+
+        // Then
+        assertThat(result).isTrue();
+        assertThat(ran).isTrue();
+        verify(unlock).setLong(1, OutboxService.RECONCILER_LOCK_KEY);
+        verify(unlock).executeQuery();
+    }
+
+    @Test
+    @DisplayName("runWithReconcilerLock - should skip the run while another node holds the lock")
+    void runWithReconcilerLock_HeldElsewhere_Skips() throws Exception {
+        // Given
+        PreparedStatement unlock = lockConnection(false);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // When
+        boolean result = outboxService.runWithReconcilerLock(() -> ran.set(true));
+
+        // Then
+        assertThat(result).isFalse();
+        assertThat(ran).isFalse();
+        verifyNoInteractions(unlock);
+    }
+
+    /**
+     * One connection whose pg_try_advisory_lock returns acquired
+     *
+     * @return the pg_advisory_unlock statement
+     */
+    @SuppressWarnings("unchecked")
+    private PreparedStatement lockConnection(boolean acquired) throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement lock = mock(PreparedStatement.class);
+        PreparedStatement unlock = mock(PreparedStatement.class);
+        ResultSet lockResult = mock(ResultSet.class);
+        when(connection.prepareStatement("SELECT pg_try_advisory_lock(?)")).thenReturn(lock);
+        when(lock.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+        when(lockResult.getBoolean(1)).thenReturn(acquired);
+        if (acquired) {
+            ResultSet unlockResult = mock(ResultSet.class);
+            when(connection.prepareStatement("SELECT pg_advisory_unlock(?)")).thenReturn(unlock);
+            when(unlock.executeQuery()).thenReturn(unlockResult);
+        }
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                invocation.<ConnectionCallback<Boolean>>getArgument(0).doInConnection(connection));
+        return unlock;
+    }
+}
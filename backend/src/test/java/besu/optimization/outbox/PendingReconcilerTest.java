@@ -0,0 +1,134 @@
+package besu.optimization.outbox;
+
+import besu.optimization.blockchain.RegistrationMetrics;
+import besu.optimization.outbox.OutboxService.ReconcileResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * PendingReconciler Unit Tests
+ *
+ * - Pages through abandoned accounts by keyset until a short page
+ * - Runs only while holding the reconciler lock, skips when another node has it
+ * - Caps the accounts handled per run
+ * - Passes the stale-after and fail-after cutoffs (the split itself: OutboxServiceTest)
+ */
+@ExtendWith(MockitoExtension.class)
+class PendingReconcilerTest {
+
+    @Mock
+    private OutboxService outboxService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PendingReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = new PendingReconciler(outboxService, new RegistrationMetrics(meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(reconciler, "batchSize", 2);
+        ReflectionTestUtils.setField(reconciler, "maxPerRun", 100);
+        reconciler.init();
+    }
+
+    // This node wins the reconciler lock: the run executes inside it
+    private void lockAcquired() {
+        when(outboxService.runWithReconcilerLock(any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        });
+    }
+
+    @Test
+    @DisplayName("reconcile - should page by last id until a short page")
+    void reconcile_PagesByKeyset() {
+        // Given
+        lockAcquired();
+        when(outboxService.reconcileAbandoned(eq(0L), any(), any(), eq(2)))
+                .thenReturn(new ReconcileResult(7, 2, 2, List.of()));
+        when(outboxService.reconcileAbandoned(eq(7L), any(), any(), eq(2)))
+                .thenReturn(new ReconcileResult(9, 1, 0, List.of(LocalDateTime.now().minusDays(2))));
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        verify(outboxService, times(2)).reconcileAbandoned(anyLong(), any(), any(), anyInt());
+        assertThat(meterRegistry.get("outbox.reconciler.requeued").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("outbox.reconciler.failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("registration.end.to.end").tag("outcome", "failed").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("reconcile - should skip the run while another node holds the lock")
+    void reconcile_LockHeldElsewhere_Skips() {
+        // Given
+        when(outboxService.runWithReconcilerLock(any())).thenReturn(false);
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        verify(outboxService, never()).reconcileAbandoned(anyLong(), any(), any(), anyInt());
+        assertThat(meterRegistry.get("outbox.reconciler.requeued").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("reconcile - should stop at max-per-run")
+    void reconcile_CapsAccountsPerRun() {
+        // Given
+        ReflectionTestUtils.setField(reconciler, "maxPerRun", 3);
+        lockAcquired();
+        when(outboxService.reconcileAbandoned(eq(0L), any(), any(), eq(2)))
+                .thenReturn(new ReconcileResult(2, 2, 2, List.of()));
+        when(outboxService.reconcileAbandoned(eq(2L), any(), any(), eq(1)))
+                .thenReturn(new ReconcileResult(3, 1, 1, List.of()));
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        verify(outboxService, times(2)).reconcileAbandoned(anyLong(), any(), any(), anyInt());
+        assertThat(meterRegistry.get("outbox.reconciler.requeued").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("reconcile - should pass the stale-after and fail-after cutoffs to each page")
+    void reconcile_PassesAgeThresholds() {
+        // Given
+        ReflectionTestUtils.setField(reconciler, "staleAfterSeconds", 600L);
+        ReflectionTestUtils.setField(reconciler, "failAfterHours", 24L);
+        lockAcquired();
+        when(outboxService.reconcileAbandoned(anyLong(), any(), any(), anyInt()))
+                .thenReturn(new ReconcileResult(0, 0, 0, List.of()));
+
+        // When
+        LocalDateTime before = LocalDateTime.now();
+        reconciler.reconcile();
+
+        // Then
+        verify(outboxService).reconcileAbandoned(eq(0L),
+                argThat(staleBefore -> !staleBefore.isAfter(before.minusSeconds(590))
+                        && staleBefore.isAfter(before.minusSeconds(610))),
+                argThat(failBefore -> !failBefore.isAfter(before.minusHours(24).plusSeconds(10))
+                        && failBefore.isAfter(before.minusHours(24).minusSeconds(10))),
+                eq(2));
+    }
+}
@@ -0,0 +1,7 @@
+-- Before: what Hibernate sends per entity with GenerationType.IDENTITY.
+-- One statement (and one round-trip) per row; the id is read back each time.
+-- 1 pgbench transaction = 1 row
+\set n random(1, 1000000000000)
+INSERT INTO accounts_bench_identity (user_id, user_name, status, created_at, updated_at)
+VALUES ('bench-' || :client_id || '-' || :n, 'bench', 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+RETURNING id;
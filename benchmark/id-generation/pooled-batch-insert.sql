@@ -0,0 +1,9 @@
+-- After: what Hibernate sends for saveAll() of 50 entities with a pooled-lo
+-- sequence, hibernate.jdbc.batch_size=50 and reWriteBatchedInserts=true.
+-- One nextval() reserves 50 ids, then a single multi-row INSERT.
+-- 1 pgbench transaction = 50 rows
+\set n random(1, 1000000000000)
+SELECT nextval('accounts_bench_pooled_id_seq') AS lo \gset
+INSERT INTO accounts_bench_pooled (id, user_id, user_name, status, created_at, updated_at)
+SELECT :lo + g, 'bench-' || :client_id || '-' || :n || '-' || g, 'bench', 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM generate_series(0, 49) AS g;
@@ -0,0 +1,31 @@
+-- =============================================================================
+-- Insert throughput benchmark: IDENTITY vs pooled sequence + batching
+-- =============================================================================
+-- Two copies of the accounts table, differing only in id generation.
+-- Run once before the pgbench scripts in this directory.
+
+DROP TABLE IF EXISTS accounts_bench_identity;
+DROP TABLE IF EXISTS accounts_bench_pooled;
+DROP SEQUENCE IF EXISTS accounts_bench_pooled_id_seq;
+
+-- Before: SERIAL id, Hibernate GenerationType.IDENTITY
+CREATE TABLE accounts_bench_identity (
+    id SERIAL PRIMARY KEY,
+    user_id VARCHAR(100) UNIQUE NOT NULL,
+    user_name VARCHAR(200),
+    status INTEGER DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- After: pooled sequence (INCREMENT BY 50), Hibernate pooled-lo optimizer
+CREATE SEQUENCE accounts_bench_pooled_id_seq AS BIGINT INCREMENT BY 50;
+
+CREATE TABLE accounts_bench_pooled (
+    id BIGINT PRIMARY KEY DEFAULT nextval('accounts_bench_pooled_id_seq'),
+    user_id VARCHAR(100) UNIQUE NOT NULL,
+    user_name VARCHAR(200),
+    status INTEGER DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
@@ -4,9 +4,16 @@
 -- This schema supports the Transaction Isolation Pattern demonstrated in the paper.
 -- Accounts are created first (TX 1), then blockchain info is updated later (TX 2).
 
+-- Id sequences
+-- INCREMENT BY 50 matches allocationSize on the JPA entities: Hibernate
+-- (pooled-lo optimizer) hands out 50 ids per nextval(), which allows JDBC
+-- insert batching. Rows inserted with the column DEFAULT take one block each.
+CREATE SEQUENCE IF NOT EXISTS accounts_id_seq AS BIGINT INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS registration_outbox_id_seq AS BIGINT INCREMENT BY 50;
+
 -- Accounts table
 CREATE TABLE IF NOT EXISTS accounts (
-    id SERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('accounts_id_seq'),
     user_id VARCHAR(100) UNIQUE NOT NULL,
     user_name VARCHAR(200),
     wallet_address VARCHAR(42),
@@ -19,28 +26,61 @@ CREATE TABLE IF NOT EXISTS accounts (
 -- Index for faster lookups
 CREATE INDEX IF NOT EXISTS idx_accounts_user_id ON accounts(user_id);
 CREATE INDEX IF NOT EXISTS idx_accounts_wallet_address ON accounts(wallet_address);
-CREATE INDEX IF NOT EXISTS idx_accounts_status ON accounts(status);
+-- (status, id): PendingReconciler pages through PENDING rows by id
+CREATE INDEX IF NOT EXISTS idx_accounts_status ON accounts(status, id);
+
+-- Registration outbox (written in TX 1, deleted in TX 2)
+CREATE TABLE IF NOT EXISTS registration_outbox (
+    id BIGINT PRIMARY KEY DEFAULT nextval('registration_outbox_id_seq'),
+    user_id VARCHAR(100) UNIQUE NOT NULL,
+    user_name VARCHAR(200),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_registration_outbox_available_at ON registration_outbox(available_at);
+
+-- Idempotency-Key of POST /api/accounts, written in TX 1 (accounts.idempotency.persist)
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    user_id VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys(created_at);
+
+ALTER SEQUENCE accounts_id_seq OWNED BY accounts.id;
+ALTER SEQUENCE registration_outbox_id_seq OWNED BY registration_outbox.id;
+
+-- Databases created with the former SERIAL ids: see migrations/001_pooled_sequence_ids.sql
 
 -- Comments
 COMMENT ON TABLE accounts IS 'User accounts with blockchain wallet integration';
 COMMENT ON COLUMN accounts.status IS '0: PENDING (DB saved, blockchain pending), 1: ACTIVE (blockchain confirmed), 2: FAILED';
 COMMENT ON COLUMN accounts.wallet_address IS 'Ethereum wallet address (0x...)';
 COMMENT ON COLUMN accounts.tx_hash IS 'Blockchain transaction hash for initial funding';
+COMMENT ON TABLE registration_outbox IS 'Durable queue of pending blockchain registrations';
+COMMENT ON COLUMN registration_outbox.available_at IS 'Entry can be claimed at/after this time (lease expiry or retry backoff)';
+COMMENT ON TABLE idempotency_keys IS 'Idempotency-Key -> account created with it; purged after accounts.idempotency.ttl-seconds';
 
 -- =============================================================================
 -- Transaction Isolation Pattern Explanation:
 -- =============================================================================
 -- 1. TX 1 (AccountService.createAccount):
 --    - INSERT INTO accounts (user_id, user_name, status=0)
+--    - INSERT INTO registration_outbox (user_id, user_name)
 --    - COMMIT immediately (~10ms)
 --    - DB connection released
 --
 -- 2. Async blockchain call (BlockchainService.registerAccount):
+--    - OutboxDispatcher claims entries with FOR UPDATE SKIP LOCKED
 --    - Takes 4-10 seconds
 --    - NO DB connection held during this wait
 --
 -- 3. TX 2 (BlockchainUpdater.updateBlockchain):
 --    - UPDATE accounts SET wallet_address=?, tx_hash=?, status=1
+--    - DELETE FROM registration_outbox WHERE user_id=?
 --    - New short transaction (~5ms)
 --    - DB connection released immediately
 -- =============================================================================
@@ -0,0 +1,22 @@
+-- =============================================================================
+-- Migration: SERIAL ids -> pooled sequence allocation
+-- =============================================================================
+-- For databases created before Account/RegistrationOutbox switched from
+-- GenerationType.IDENTITY to a pooled sequence (allocationSize = 50).
+-- Fresh databases get this layout from init.sql directly.
+--
+-- The SERIAL columns already own sequences with the expected names
+-- (accounts_id_seq, registration_outbox_id_seq); only their type and
+-- increment change. Existing ids are preserved, and with the pooled-lo
+-- optimizer every id handed out afterwards is above the current maximum.
+-- =============================================================================
+
+BEGIN;
+
+ALTER TABLE accounts ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE accounts_id_seq AS BIGINT INCREMENT BY 50;
+
+ALTER TABLE registration_outbox ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE registration_outbox_id_seq AS BIGINT INCREMENT BY 50;
+
+COMMIT;
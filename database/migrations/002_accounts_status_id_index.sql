@@ -0,0 +1,16 @@
+-- =============================================================================
+-- Migration: idx_accounts_status (status) -> (status, id)
+-- =============================================================================
+-- PendingReconciler pages through PENDING accounts with
+--   WHERE status = 0 AND id > :afterId ORDER BY id LIMIT :limit
+-- With (status, id) each page is an index range scan that starts at the
+-- cursor, instead of rescanning every PENDING row and sorting.
+-- Fresh databases get this layout from init.sql directly.
+--
+-- CONCURRENTLY does not block inserts, so it can run on a live database;
+-- it cannot run inside a transaction block.
+-- =============================================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_accounts_status_id ON accounts(status, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_accounts_status;
+ALTER INDEX idx_accounts_status_id RENAME TO idx_accounts_status;
@@ -0,0 +1,22 @@
+-- =============================================================================
+-- Migration: idempotency_keys table
+-- =============================================================================
+-- Only needed with accounts.idempotency.persist=true: POST /api/accounts
+-- then records its Idempotency-Key in TX 1, so a retry that reaches another
+-- node (or comes after a restart) still gets the original 201 replayed.
+-- Fresh databases get this table from init.sql directly.
+-- =============================================================================
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    user_id VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys(created_at);
+
+GRANT ALL PRIVILEGES ON idempotency_keys TO besu;
+
+COMMIT;